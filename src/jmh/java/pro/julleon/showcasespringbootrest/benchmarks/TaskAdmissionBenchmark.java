@@ -0,0 +1,69 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import pro.julleon.showcasespringbootrest.admission.Admission;
+import pro.julleon.showcasespringbootrest.admission.TaskAdmissionControl;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Стоимость допуска одного POST /api/tasks: проверка размера хранилища без ограничения частоты и вместе с ним.
+// Пополнение настолько быстрое, что запросы не отклоняются и измеряется только учёт маркеров;
+// clients=1 — все потоки конкурируют за одну корзину, иначе корзины ищутся в большой таблице
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TaskAdmissionBenchmark {
+
+    private static final int REQUESTS_PER_THREAD = 4096;
+
+    @Param({"false", "true"})
+    boolean rateLimit;
+
+    @Param({"1", "100000"})
+    int clients;
+
+    TaskAdmissionControl taskAdmissionControl;
+
+    private final AtomicLong threadSeeds = new AtomicLong(TaskFixtures.SEED);
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        ServletWebRequest[] webRequests;
+
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(TaskAdmissionBenchmark benchmark) {
+            final SplittableRandom random = new SplittableRandom(benchmark.threadSeeds.incrementAndGet());
+            this.webRequests = new ServletWebRequest[REQUESTS_PER_THREAD];
+            for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tasks");
+                final int client = random.nextInt(benchmark.clients);
+                request.setRemoteAddr("10." + (client >>> 16) + "." + (client >>> 8 & 0xff) + "." + (client & 0xff));
+                this.webRequests[i] = new ServletWebRequest(request);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.taskAdmissionControl = new TaskAdmissionControl(new InMemoryTaskRepositoryImpl(false), Long.MAX_VALUE,
+                this.rateLimit, Integer.MAX_VALUE, 1e12, 2 * this.clients, false);
+    }
+
+    @Benchmark
+    public Admission admit(ThreadState state) {
+        final ServletWebRequest webRequest = state.webRequests[state.next++ & (REQUESTS_PER_THREAD - 1)];
+        return this.taskAdmissionControl.admit(webRequest, 1);
+    }
+}
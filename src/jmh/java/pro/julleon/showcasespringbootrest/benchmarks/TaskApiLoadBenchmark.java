@@ -0,0 +1,113 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pro.julleon.showcasespringbootrest.ShowcaseSpringBootRestApplication;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Нагрузочный тест встроенного Tomcat: пропускная способность и перцентили задержки
+// при обработке запросов на платформенных и виртуальных потоках, для блокирующего и реактивного API
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(512)
+@State(Scope.Benchmark)
+public class TaskApiLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    String threads;
+
+    @Param({"blocking", "reactive"})
+    String api;
+
+    // Ограничение пула Tomcat для платформенных потоков, на виртуальных не используется
+    @Param({"200"})
+    int tomcatMaxThreads;
+
+    ConfigurableApplicationContext context;
+
+    HttpClient httpClient;
+
+    URI tasksUri;
+
+    List<Task> tasks;
+
+    private final AtomicLong threadSeeds = new AtomicLong(TaskFixtures.SEED);
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(TaskApiLoadBenchmark benchmark) {
+            this.random = new SplittableRandom(benchmark.threadSeeds.incrementAndGet());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final boolean virtual = "virtual".equals(this.threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads require JDK 21+, running on " + Runtime.version());
+        }
+        this.context = new SpringApplicationBuilder(ShowcaseSpringBootRestApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + this.tomcatMaxThreads,
+                        "server.tomcat.max-connections=20000",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        // Все запросы приходят с одного адреса: ограничение частоты учитывается, но не срабатывает
+                        "tasks.admission.rate-limit.capacity=" + Integer.MAX_VALUE,
+                        "tasks.admission.rate-limit.refill-per-second=1000000000",
+                        "logging.level.root=warn")
+                .run();
+        this.tasks = TaskFixtures.tasks(1000);
+        this.context.getBean(TaskRepository.class).saveAll(this.tasks);
+
+        final String port = this.context.getEnvironment().getProperty("local.server.port");
+        this.tasksUri = URI.create("http://localhost:" + port
+                                   + ("reactive".equals(this.api) ? "/api/reactive/tasks" : "/api/tasks"));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public int findTask(ThreadState state) throws Exception {
+        final Task task = this.tasks.get(state.random.nextInt(this.tasks.size()));
+        return this.httpClient
+                .send(HttpRequest.newBuilder(this.tasksUri.resolve("tasks/" + task.id())).GET().build(),
+                        HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    @Benchmark
+    public int createTask() throws Exception {
+        return this.httpClient
+                .send(HttpRequest.newBuilder(this.tasksUri)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"description\":\"Load test task\"}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
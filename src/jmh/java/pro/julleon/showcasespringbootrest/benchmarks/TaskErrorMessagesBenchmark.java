@@ -0,0 +1,59 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorCode;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorMessages;
+import pro.julleon.showcasespringbootrest.validation.TaskValidation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Отклонение невалидной задачи без HTTP: проверка описания и тело ответа с ошибкой,
+// построенное через MessageSource на каждый запрос или взятое из TaskErrorMessages
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskErrorMessagesBenchmark {
+
+    @Param({"en", "ru-RU"})
+    String locale;
+
+    Locale requestLocale;
+
+    ResourceBundleMessageSource messageSource;
+
+    TaskErrorMessages taskErrorMessages;
+
+    String description = "   ";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.requestLocale = Locale.forLanguageTag(this.locale);
+        this.messageSource = new ResourceBundleMessageSource();
+        this.messageSource.setBasename("messages");
+        this.messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        this.taskErrorMessages = new TaskErrorMessages(this.messageSource);
+    }
+
+    @Benchmark
+    public ErrorsPresentation messageSource() {
+        if (this.description == null || this.description.isBlank()) {
+            return new ErrorsPresentation(List.of(this.messageSource
+                    .getMessage("tasks.create.description.errors.not_set", new Object[0], this.requestLocale)));
+        }
+        return null;
+    }
+
+    @Benchmark
+    public ErrorsPresentation cached() {
+        final TaskErrorCode errorCode = TaskValidation.validateNewDescription(this.description);
+        return errorCode == null ? null : this.taskErrorMessages.errors(errorCode, this.requestLocale);
+    }
+}
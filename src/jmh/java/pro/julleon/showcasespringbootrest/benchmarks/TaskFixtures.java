@@ -0,0 +1,26 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+final class TaskFixtures {
+
+    static final long SEED = 42;
+
+    private TaskFixtures() {
+    }
+
+    static List<Task> tasks(int size) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(new Task(new UUID(random.nextLong(), random.nextLong()),
+                    "Task number " + i, random.nextBoolean()));
+        }
+        return tasks;
+    }
+}
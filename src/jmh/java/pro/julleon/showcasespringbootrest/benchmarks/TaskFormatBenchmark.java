@@ -0,0 +1,66 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Сериализация списка задач в JSON, CBOR и Smile, со сжатием gzip и без;
+// размер ответа печатается при подготовке каждого сочетания параметров
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskFormatBenchmark {
+
+    @Param({"10000"})
+    int size;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    String format;
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    ObjectMapper objectMapper;
+
+    List<Task> tasks;
+
+    ByteArrayOutputStream buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final Jackson2ObjectMapperBuilder objectMapperBuilder = Jackson2ObjectMapperBuilder.json();
+        switch (this.format) {
+            case "CBOR" -> objectMapperBuilder.factory(new CBORFactory());
+            case "SMILE" -> objectMapperBuilder.factory(new SmileFactory());
+            default -> {
+            }
+        }
+        this.objectMapper = objectMapperBuilder.build();
+        this.tasks = TaskFixtures.tasks(this.size);
+        this.buffer = new ByteArrayOutputStream(1 << 20);
+        System.out.printf("%n%s%s, %d tasks: %d bytes%n",
+                this.format, this.gzip ? "+gzip" : "", this.size, serialize());
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        this.buffer.reset();
+        try (OutputStream outputStream = this.gzip ? new GZIPOutputStream(this.buffer, 8192) : this.buffer) {
+            this.objectMapper.writeValue(outputStream, this.tasks);
+        }
+        return this.buffer.size();
+    }
+}
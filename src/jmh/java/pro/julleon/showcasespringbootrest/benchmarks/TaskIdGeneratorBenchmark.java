@@ -0,0 +1,43 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pro.julleon.showcasespringbootrest.ids.TaskIdGenerator;
+import pro.julleon.showcasespringbootrest.ids.impl.RandomTaskIdGenerator;
+import pro.julleon.showcasespringbootrest.ids.impl.TimeOrderedTaskIdGenerator;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Создание задач из 32 потоков, как при массовом POST /api/tasks: идентификатор и объект задачи без сохранения
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class TaskIdGeneratorBenchmark {
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    String generator;
+
+    TaskIdGenerator taskIdGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.taskIdGenerator = "RANDOM".equals(this.generator)
+                ? new RandomTaskIdGenerator()
+                : new TimeOrderedTaskIdGenerator();
+    }
+
+    @Benchmark
+    public UUID nextId() {
+        return this.taskIdGenerator.nextId();
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return new Task(this.taskIdGenerator.nextId(), "Benchmark task", false);
+    }
+}
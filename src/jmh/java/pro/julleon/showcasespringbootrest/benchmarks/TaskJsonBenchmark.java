@@ -0,0 +1,47 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pro.julleon.showcasespringbootrest.http.json.TaskJsonCache;
+import pro.julleon.showcasespringbootrest.http.json.TaskJsonCacheModule;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskJsonBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int size;
+
+    // С кэшем повторная сериализация копирует готовые фрагменты задач
+    @Param({"false", "true"})
+    boolean cached;
+
+    ObjectMapper objectMapper;
+
+    List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Jackson2ObjectMapperBuilder objectMapperBuilder = Jackson2ObjectMapperBuilder.json();
+        if (this.cached) {
+            objectMapperBuilder.modulesToInstall(new TaskJsonCacheModule(new TaskJsonCache(256L << 20)));
+        }
+        this.objectMapper = objectMapperBuilder.build();
+        this.tasks = TaskFixtures.tasks(this.size);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.tasks);
+    }
+}
@@ -0,0 +1,98 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import pro.julleon.showcasespringbootrest.metrics.MeteredMappingJackson2HttpMessageConverter;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение вызовов без инструментирования и через @Timed-прокси и измеряющий конвертер
+// с гистограммами, включёнными так же, как в application.properties
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMetricsOverheadBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"false", "true"})
+    boolean instrumented;
+
+    TaskRepository taskRepository;
+
+    MappingJackson2HttpMessageConverter converter;
+
+    UUID[] ids;
+
+    List<Task> page;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final SplittableRandom random = new SplittableRandom(TaskFixtures.SEED);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final InMemoryTaskRepositoryImpl target = new InMemoryTaskRepositoryImpl(false);
+        final List<Task> tasks = TaskFixtures.tasks(SIZE);
+        target.saveAll(tasks);
+        this.ids = tasks.stream().map(Task::id).toArray(UUID[]::new);
+        this.page = tasks.subList(0, 100);
+
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        if (this.instrumented) {
+            final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            meterRegistry.config().meterFilter(new MeterFilter() {
+                @Override
+                public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+            });
+            final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+            proxyFactory.addAspect(new TimedAspect(meterRegistry));
+            this.taskRepository = proxyFactory.getProxy();
+            this.converter = new MeteredMappingJackson2HttpMessageConverter(objectMapper, meterRegistry);
+        } else {
+            this.taskRepository = target;
+            this.converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        }
+    }
+
+    @Benchmark
+    public Optional<Task> findById(ThreadState state) {
+        return this.taskRepository.findById(this.ids[state.random.nextInt(SIZE)]);
+    }
+
+    @Benchmark
+    public byte[] writeTaskPage() throws IOException {
+        final MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        this.converter.write(this.page, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.getBodyAsBytes();
+    }
+}
@@ -0,0 +1,56 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.impl.FileTaskRepositoryImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Время восстановления FileTaskRepositoryImpl из снимка и хвоста журнала
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class TaskRecoveryBenchmark {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    Path directory;
+
+    FileTaskRepositoryImpl recovered;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.directory = Files.createTempDirectory("tasks-recovery-benchmark");
+        final List<Task> tasks = TaskFixtures.tasks(this.size);
+        // Девять десятых задач попадают в снимок, остальные остаются в журнале
+        try (FileTaskRepositoryImpl taskRepository =
+                     new FileTaskRepositoryImpl(this.directory, this.size * 9 / 10, 1024, false)) {
+            taskRepository.saveAll(tasks.subList(0, this.size * 9 / 10));
+            taskRepository.saveAll(tasks.subList(this.size * 9 / 10, this.size));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRecovered() throws Exception {
+        this.recovered.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(this.directory);
+    }
+
+    @Benchmark
+    public FileTaskRepositoryImpl recover() {
+        this.recovered = new FileTaskRepositoryImpl(this.directory, Integer.MAX_VALUE, 1024, false);
+        return this.recovered;
+    }
+}
@@ -0,0 +1,105 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TaskRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"IN_MEMORY", "COMPACT", "FILE", "SHARDED"})
+    TaskRepositoryType repositoryType;
+
+    TaskRepository taskRepository;
+
+    UUID[] ids;
+
+    private final AtomicLong threadSeeds = new AtomicLong(TaskFixtures.SEED);
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(TaskRepositoryBenchmark benchmark) {
+            this.random = new SplittableRandom(benchmark.threadSeeds.incrementAndGet());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.taskRepository = this.repositoryType.create();
+        final List<Task> tasks = TaskFixtures.tasks(this.size);
+        tasks.forEach(this.taskRepository::save);
+        this.ids = tasks.stream().map(Task::id).toArray(UUID[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        TaskRepositoryType.close(this.taskRepository);
+    }
+
+    @Benchmark
+    public Optional<Task> findById(ThreadState state) {
+        return this.taskRepository.findById(this.ids[state.random.nextInt(this.size)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<Task> findByIdContended(ThreadState state) {
+        return findById(state);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<Task> findAll() {
+        return this.taskRepository.findAll();
+    }
+
+    @Benchmark
+    public TaskPage findPage() {
+        return this.taskRepository.findPage(this.size / 2, 100);
+    }
+
+    @Benchmark
+    public TaskPage findCompletedPage() {
+        return this.taskRepository.findPage(this.size / 2, 100, true);
+    }
+
+    @Benchmark
+    public List<Task> filterCompletedPage() {
+        return this.taskRepository.streamAll()
+                .skip(this.size / 2)
+                .filter(Task::completed)
+                .limit(100)
+                .toList();
+    }
+
+    @Benchmark
+    public int countCompleted() {
+        return this.taskRepository.count(true);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long countCompletedByScan() {
+        return this.taskRepository.streamAll().filter(Task::completed).count();
+    }
+}
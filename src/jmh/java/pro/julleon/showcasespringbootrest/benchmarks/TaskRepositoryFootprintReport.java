@@ -0,0 +1,102 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Удерживаемый объём кучи на задачу и паузы GC при заполнении и полном чтении хранилища.
+// Задачи создаются на лету, поэтому в объём входят и объекты Task, которые хранит реализация.
+// Каждое хранилище измеряется без поискового индекса и с ним
+public final class TaskRepositoryFootprintReport {
+
+    private static final AtomicLong GC_COUNT = new AtomicLong();
+
+    private static final AtomicLong GC_TOTAL_MILLIS = new AtomicLong();
+
+    private static final AtomicLong GC_MAX_MILLIS = new AtomicLong();
+
+    private TaskRepositoryFootprintReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        listenToGarbageCollections();
+
+        System.out.printf("%-10s %7s %10s %12s %8s %14s %12s%n",
+                "type", "search", "tasks", "bytes/task", "gc", "gc total ms", "gc max ms");
+        for (int round = 0; round < 2; round++) {
+            for (TaskRepositoryType type : new TaskRepositoryType[]{
+                    TaskRepositoryType.IN_MEMORY, TaskRepositoryType.COMPACT}) {
+                for (boolean searchEnabled : new boolean[]{false, true}) {
+                    measure(type, searchEnabled, size, round == 1);
+                }
+            }
+        }
+    }
+
+    private static void measure(TaskRepositoryType type, boolean searchEnabled, int size, boolean print)
+            throws Exception {
+        collectGarbage();
+        final long heapBefore = usedHeap();
+        resetGarbageCollectionStatistics();
+
+        final TaskRepository taskRepository = type.create(searchEnabled);
+        final SplittableRandom random = new SplittableRandom(TaskFixtures.SEED);
+        for (int i = 0; i < size; i++) {
+            taskRepository.save(new Task(new UUID(random.nextLong(), random.nextLong()),
+                    "Task number " + i, random.nextBoolean()));
+        }
+        taskRepository.findAll();
+
+        final long gcCount = GC_COUNT.get();
+        final long gcTotal = GC_TOTAL_MILLIS.get();
+        final long gcMax = GC_MAX_MILLIS.get();
+        collectGarbage();
+        final long retained = usedHeap() - heapBefore;
+        if (print) {
+            System.out.printf("%-10s %7s %10d %12d %8d %14d %12d%n",
+                    type, searchEnabled ? "on" : "off", size, retained / size, gcCount, gcTotal, gcMax);
+        }
+        TaskRepositoryType.close(taskRepository);
+    }
+
+    private static void listenToGarbageCollections() {
+        final NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                final GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                        .from((CompositeData) notification.getUserData());
+                final long duration = info.getGcInfo().getDuration();
+                GC_COUNT.incrementAndGet();
+                GC_TOTAL_MILLIS.addAndGet(duration);
+                GC_MAX_MILLIS.accumulateAndGet(duration, Math::max);
+            }
+        };
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+    }
+
+    private static void resetGarbageCollectionStatistics() {
+        GC_COUNT.set(0);
+        GC_TOTAL_MILLIS.set(0);
+        GC_MAX_MILLIS.set(0);
+    }
+
+    private static void collectGarbage() throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,69 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Вставка растит хранилище, поэтому каждая итерация — фиксированная серия save в свежем хранилище
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = TaskRepositorySaveBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = TaskRepositorySaveBenchmark.BATCH_SIZE)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TaskRepositorySaveBenchmark {
+
+    static final int BATCH_SIZE = 100_000;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"IN_MEMORY", "COMPACT"})
+    TaskRepositoryType repositoryType;
+
+    TaskRepository taskRepository;
+
+    private final AtomicLong threadSeeds = new AtomicLong(TaskFixtures.SEED);
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(TaskRepositorySaveBenchmark benchmark) {
+            this.random = new SplittableRandom(benchmark.threadSeeds.incrementAndGet());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        TaskRepositoryType.close(this.taskRepository);
+        this.taskRepository = this.repositoryType.create();
+        TaskFixtures.tasks(this.size).forEach(this.taskRepository::save);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        TaskRepositoryType.close(this.taskRepository);
+    }
+
+    @Benchmark
+    public Task save(ThreadState state) {
+        final Task task = new Task(new UUID(state.random.nextLong(), state.random.nextLong()),
+                "Benchmark task", false);
+        this.taskRepository.save(task);
+        return task;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Task saveContended(ThreadState state) {
+        return save(state);
+    }
+}
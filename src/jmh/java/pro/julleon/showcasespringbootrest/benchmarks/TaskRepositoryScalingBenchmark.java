@@ -0,0 +1,130 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Масштабирование хранилищ по числу потоков: main прогоняет все методы при 1, 2, 4, 8, 16 и 32 потоках
+// и печатает сводную таблицу пропускной способности; аргументы main — обычные параметры JMH.
+// mvn -Pbenchmarks test-compile exec:exec -Dbenchmarks.main=pro.julleon.showcasespringbootrest.benchmarks.TaskRepositoryScalingBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TaskRepositoryScalingBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"IN_MEMORY", "SHARDED"})
+    TaskRepositoryType repositoryType;
+
+    TaskRepository taskRepository;
+
+    List<Task> tasks;
+
+    private final AtomicLong threadSeeds = new AtomicLong(TaskFixtures.SEED);
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(TaskRepositoryScalingBenchmark benchmark) {
+            this.random = new SplittableRandom(benchmark.threadSeeds.incrementAndGet());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.taskRepository = this.repositoryType.create();
+        this.tasks = TaskFixtures.tasks(this.size);
+        this.taskRepository.saveAll(this.tasks);
+        // Копирующая сборка раскладывает узлы хранилища в памяти по порядку обхода; без неё скорость
+        // обхода зависит от того, успел ли прогон вызвать сборку, а не от реализации хранилища
+        System.gc();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        TaskRepositoryType.close(this.taskRepository);
+    }
+
+    @Benchmark
+    public Optional<Task> findById(ThreadState state) {
+        return this.taskRepository.findById(this.tasks.get(state.random.nextInt(this.size)).id());
+    }
+
+    // Повторное сохранение существующей задачи: размер хранилища не растёт за время прогона
+    @Benchmark
+    public Task save(ThreadState state) {
+        final Task task = this.tasks.get(state.random.nextInt(this.size));
+        final Task saved = new Task(task.id(), task.description(), state.random.nextBoolean());
+        this.taskRepository.save(saved);
+        return saved;
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return this.taskRepository.findAll();
+    }
+
+    @Benchmark
+    public TaskPage findAllCompleted() {
+        return this.taskRepository.findPage(0, Integer.MAX_VALUE, true);
+    }
+
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        // Строка таблицы — метод и хранилище, столбец — число потоков
+        final Map<String, Map<Integer, Double>> scores = new TreeMap<>();
+        for (int threads : THREADS) {
+            final ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(threads);
+            if (commandLineOptions.getIncludes().isEmpty()) {
+                options.include(TaskRepositoryScalingBenchmark.class.getName());
+            }
+            for (RunResult result : new Runner(options.build()).run()) {
+                final String benchmark = result.getParams().getBenchmark();
+                final String row = benchmark.substring(benchmark.lastIndexOf('.') + 1)
+                        + " " + result.getParams().getParam("repositoryType");
+                scores.computeIfAbsent(row, key -> new TreeMap<>())
+                        .put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+
+        System.out.printf("%n%-28s", "ops/s");
+        for (int threads : THREADS) {
+            System.out.printf(" %14s", threads + " threads");
+        }
+        System.out.println();
+        scores.forEach((row, byThreads) -> {
+            System.out.printf("%-28s", row);
+            for (int threads : THREADS) {
+                System.out.printf(" %14.0f", byThreads.getOrDefault(threads, Double.NaN));
+            }
+            System.out.println();
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.springframework.util.FileSystemUtils;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+import pro.julleon.showcasespringbootrest.repositories.impl.CompactTaskRepositoryImpl;
+import pro.julleon.showcasespringbootrest.repositories.impl.FileTaskRepositoryImpl;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+import pro.julleon.showcasespringbootrest.repositories.impl.ShardedTaskRepositoryImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.function.Function;
+
+public enum TaskRepositoryType {
+
+    IN_MEMORY(InMemoryTaskRepositoryImpl::new),
+
+    COMPACT(CompactTaskRepositoryImpl::new),
+
+    SHARDED(searchEnabled -> new ShardedTaskRepositoryImpl(16, searchEnabled)),
+
+    FILE(searchEnabled -> {
+        try {
+            return new FileTaskRepositoryImpl(Files.createTempDirectory("tasks-benchmark"), 1_000_000, 1024,
+                    searchEnabled);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    });
+
+    private final Function<Boolean, TaskRepository> factory;
+
+    TaskRepositoryType(Function<Boolean, TaskRepository> factory) {
+        this.factory = factory;
+    }
+
+    // Хранилище с настройками по умолчанию: без поискового индекса
+    public TaskRepository create() {
+        return create(false);
+    }
+
+    public TaskRepository create(boolean searchEnabled) {
+        return this.factory.apply(searchEnabled);
+    }
+
+    public static void close(TaskRepository taskRepository) throws Exception {
+        if (taskRepository instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        if (taskRepository instanceof FileTaskRepositoryImpl fileTaskRepository) {
+            FileSystemUtils.deleteRecursively(fileTaskRepository.getDirectory());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pro.julleon.showcasespringbootrest.admission.TaskAdmissionControl;
+import pro.julleon.showcasespringbootrest.controllers.TaskRestController;
+import pro.julleon.showcasespringbootrest.http.dto.NewTaskPayload;
+import pro.julleon.showcasespringbootrest.ids.impl.TimeOrderedTaskIdGenerator;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorMessages;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskRestControllerBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    @Param({"1000"})
+    int size;
+
+    @Param({"IN_MEMORY", "COMPACT", "FILE"})
+    TaskRepositoryType repositoryType;
+
+    TaskRepository taskRepository;
+
+    MockMvc mockMvc;
+
+    Task existingTask;
+
+    String allTasksETag;
+
+    byte[] singlePayload;
+
+    byte[] batchPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        final ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+
+        this.taskRepository = this.repositoryType.create();
+        final List<Task> tasks = TaskFixtures.tasks(this.size);
+        tasks.forEach(this.taskRepository::save);
+        this.existingTask = tasks.get(this.size / 2);
+
+        this.mockMvc = MockMvcBuilders
+                .standaloneSetup(new TaskRestController(this.taskRepository, new TaskErrorMessages(messageSource),
+                        objectMapper, new TimeOrderedTaskIdGenerator(),
+                        new TaskAdmissionControl(this.taskRepository, Long.MAX_VALUE, false, 0, 0, 0, false)))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+
+        this.allTasksETag = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        this.singlePayload = objectMapper.writeValueAsBytes(new NewTaskPayload("Benchmark task"));
+        final List<NewTaskPayload> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new NewTaskPayload("Benchmark task " + i));
+        }
+        this.batchPayload = objectMapper.writeValueAsBytes(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        TaskRepositoryType.close(this.taskRepository);
+    }
+
+    @Benchmark
+    public MvcResult getAllTasks() throws Exception {
+        return this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks"))
+                .andReturn();
+    }
+
+    // Повторный опрос без изменений: 304 без чтения и сериализации задач
+    @Benchmark
+    public MvcResult getAllTasksNotModified() throws Exception {
+        return this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks")
+                        .header(HttpHeaders.IF_NONE_MATCH, this.allTasksETag))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getTasksPage() throws Exception {
+        return this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks").param("limit", "100"))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult findTask() throws Exception {
+        return this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/{id}", this.existingTask.id()))
+                .andReturn();
+    }
+
+    // Пропускная способность в задачах в секунду, сопоставима с createTasksBatch
+    @Benchmark
+    public MvcResult createTask() throws Exception {
+        return this.mockMvc
+                .perform(MockMvcRequestBuilders.post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.singlePayload))
+                .andReturn();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public MvcResult createTasksBatch() throws Exception {
+        return this.mockMvc
+                .perform(MockMvcRequestBuilders.post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.batchPayload))
+                .andReturn();
+    }
+}
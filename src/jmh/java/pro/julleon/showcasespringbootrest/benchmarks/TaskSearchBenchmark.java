@@ -0,0 +1,67 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Поиск по индексу против полного перебора описаний; описания вида "Task number N",
+// поэтому "number 123456" находит одну задачу, "12345" — 11 по префиксу, "task" — все
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+
+    static final int LIMIT = 20;
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"IN_MEMORY", "COMPACT"})
+    TaskRepositoryType repositoryType;
+
+    @Param({"number 123456", "12345", "task"})
+    String query;
+
+    TaskRepository taskRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.taskRepository = this.repositoryType.create(true);
+        this.taskRepository.saveAll(TaskFixtures.tasks(this.size));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        TaskRepositoryType.close(this.taskRepository);
+    }
+
+    @Benchmark
+    public List<Task> search() {
+        return this.taskRepository.search(this.query, LIMIT);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Task> scan() {
+        final String[] words = this.query.toLowerCase(Locale.ROOT).split(" ");
+        return this.taskRepository.streamAll()
+                .filter(task -> {
+                    final String description = task.description().toLowerCase(Locale.ROOT);
+                    for (String word : words) {
+                        if (!description.contains(word)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .limit(LIMIT)
+                .toList();
+    }
+}
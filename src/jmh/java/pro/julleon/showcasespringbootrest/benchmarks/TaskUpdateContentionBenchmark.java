@@ -0,0 +1,73 @@
+package pro.julleon.showcasespringbootrest.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Переключение признака выполнения циклом чтение → сравнение версии → замена, как в PATCH без If-Match;
+// SAME — все потоки спорят за одну задачу, DIFFERENT — каждый изменяет случайную из многих
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TaskUpdateContentionBenchmark {
+
+    @Param({"10000"})
+    int size;
+
+    @Param({"IN_MEMORY", "COMPACT", "FILE"})
+    TaskRepositoryType repositoryType;
+
+    @Param({"SAME", "DIFFERENT"})
+    String target;
+
+    TaskRepository taskRepository;
+
+    List<Task> tasks;
+
+    // Число неудачных попыток замены, отнесённое к числу операций
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Retries {
+
+        public long retries;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.taskRepository = this.repositoryType.create();
+        this.tasks = TaskFixtures.tasks(this.size);
+        this.taskRepository.saveAll(this.tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        TaskRepositoryType.close(this.taskRepository);
+    }
+
+    @Benchmark
+    public void toggleCompleted(Retries retries, Blackhole blackhole) {
+        final Task target = "SAME".equals(this.target)
+                ? this.tasks.get(0)
+                : this.tasks.get(ThreadLocalRandom.current().nextInt(this.size));
+        while (true) {
+            final VersionedTask current = this.taskRepository.findVersionedById(target.id()).orElseThrow();
+            final Task task = current.task();
+            final Task toggled = new Task(task.id(), task.description(), !task.completed());
+            if (this.taskRepository.replace(toggled, current.version()).isPresent()) {
+                blackhole.consume(toggled);
+                return;
+            }
+            retries.retries++;
+        }
+    }
+}
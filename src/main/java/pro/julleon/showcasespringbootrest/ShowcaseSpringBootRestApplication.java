@@ -2,8 +2,10 @@ package pro.julleon.showcasespringbootrest;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(TaskRuntimeHints.class)
 public class ShowcaseSpringBootRestApplication {
 
     public static void main(String[] args) {
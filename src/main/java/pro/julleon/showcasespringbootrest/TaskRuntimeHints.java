@@ -0,0 +1,32 @@
+package pro.julleon.showcasespringbootrest;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import pro.julleon.showcasespringbootrest.http.dto.NewTaskPayload;
+import pro.julleon.showcasespringbootrest.http.dto.TaskBatchItemPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TaskCountsPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TasksBatchPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TasksPagePresentation;
+import pro.julleon.showcasespringbootrest.http.dto.UpdateTaskPayload;
+import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+// Подсказки для native-image: обработчики возвращают ResponseEntity<?>, поэтому AOT не выводит
+// типы тел ответов из сигнатур, а сообщения об ошибках читаются из ResourceBundle
+public class TaskRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Task.class,
+                NewTaskPayload.class,
+                UpdateTaskPayload.class,
+                ErrorsPresentation.class,
+                TaskBatchItemPresentation.class,
+                TasksBatchPresentation.class,
+                TasksPagePresentation.class,
+                TaskCountsPresentation.class);
+        hints.resources().registerResourceBundle("messages");
+    }
+}
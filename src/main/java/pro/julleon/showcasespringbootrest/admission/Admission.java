@@ -0,0 +1,16 @@
+package pro.julleon.showcasespringbootrest.admission;
+
+import java.util.OptionalLong;
+
+public record Admission(Status status, OptionalLong retryAfterSeconds) {
+
+    public static final Admission ADMITTED = new Admission(Status.ADMITTED, OptionalLong.empty());
+
+    public static final Admission STORE_FULL = new Admission(Status.STORE_FULL, OptionalLong.empty());
+
+    public enum Status {
+        ADMITTED,
+        RATE_LIMITED,
+        STORE_FULL
+    }
+}
@@ -0,0 +1,73 @@
+package pro.julleon.showcasespringbootrest.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.util.OptionalLong;
+
+// Допуск создания задач: предельный размер хранилища и ограничение частоты для каждого клиента.
+// Проверка размера не атомарна с сохранением, поэтому конкурентные запросы могут превысить предел
+// не больше чем на размер одновременно создаваемых пакетов
+@Component
+public class TaskAdmissionControl {
+
+    // Клиент определяется по адресу; заголовку клиент может подставить любое значение и получить новую корзину,
+    // поэтому он учитывается, только если его выставляет доверенный прокси перед приложением
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final TaskRepository taskRepository;
+
+    private final long maxTasks;
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final boolean trustClientIdHeader;
+
+    public TaskAdmissionControl(
+            TaskRepository taskRepository,
+            @Value("${tasks.admission.max-tasks:10000000}") long maxTasks,
+            @Value("${tasks.admission.rate-limit.enabled:true}") boolean rateLimitEnabled,
+            @Value("${tasks.admission.rate-limit.capacity:10000}") int capacity,
+            @Value("${tasks.admission.rate-limit.refill-per-second:1000}") double refillPerSecond,
+            @Value("${tasks.admission.rate-limit.max-clients:100000}") int maxClients,
+            @Value("${tasks.admission.rate-limit.trust-client-id-header:false}") boolean trustClientIdHeader
+    ) {
+        this.taskRepository = taskRepository;
+        this.maxTasks = maxTasks;
+        this.rateLimiter = rateLimitEnabled
+                ? new TokenBucketRateLimiter(capacity, refillPerSecond, maxClients)
+                : null;
+        this.trustClientIdHeader = trustClientIdHeader;
+    }
+
+    public Admission admit(WebRequest webRequest, int tasks) {
+        if (this.taskRepository.size() + (long) tasks > this.maxTasks) {
+            return Admission.STORE_FULL;
+        }
+        if (this.rateLimiter == null) {
+            return Admission.ADMITTED;
+        }
+        final long waitNanos = this.rateLimiter.tryAcquire(clientKey(webRequest), tasks);
+        if (waitNanos == 0) {
+            return Admission.ADMITTED;
+        }
+        return new Admission(Admission.Status.RATE_LIMITED, waitNanos == TokenBucketRateLimiter.NEVER
+                ? OptionalLong.empty()
+                : OptionalLong.of((waitNanos + 999_999_999L) / 1_000_000_000L));
+    }
+
+    private String clientKey(WebRequest webRequest) {
+        if (this.trustClientIdHeader) {
+            final String clientId = webRequest.getHeader(CLIENT_ID_HEADER);
+            if (clientId != null && !clientId.isBlank()) {
+                return clientId;
+            }
+        }
+        return webRequest instanceof ServletWebRequest servletWebRequest
+                ? servletWebRequest.getRequest().getRemoteAddr()
+                : "";
+    }
+}
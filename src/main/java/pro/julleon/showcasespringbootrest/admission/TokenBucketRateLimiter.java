@@ -0,0 +1,107 @@
+package pro.julleon.showcasespringbootrest.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Маркерная корзина на клиента в виде одного AtomicLong: момент, когда корзина снова станет полной
+// (алгоритм GCRA). Взятие маркеров — одна операция сравнения с обменом, без блокировок.
+// Таблица клиентов ограничена: полные корзины ничем не отличаются от новых и удаляются при заполнении
+// таблицы, а клиенты сверх предела делят между собой фиксированный набор корзин по хешу ключа
+public class TokenBucketRateLimiter {
+
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private static final int OVERFLOW_BUCKETS = 1024;
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final long nanosPerToken;
+
+    private final long burstNanos;
+
+    private final int maxClients;
+
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong[] overflowBuckets = new AtomicLong[OVERFLOW_BUCKETS];
+
+    // Очистка таблицы требует полного обхода, поэтому выполняется одним потоком и не чаще интервала
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    private volatile long nextSweep;
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxClients) {
+        this(capacity, refillPerSecond, maxClients, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxClients, LongSupplier nanoClock) {
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = this.nanosPerToken * capacity;
+        this.maxClients = maxClients;
+        this.nanoClock = nanoClock;
+        final long now = nanoClock.getAsLong();
+        for (int i = 0; i < OVERFLOW_BUCKETS; i++) {
+            this.overflowBuckets[i] = new AtomicLong(now);
+        }
+        this.nextSweep = now;
+    }
+
+    // 0, если маркеры взяты, иначе время в наносекундах до их появления или NEVER
+    public long tryAcquire(String clientKey, int permits) {
+        final long cost = permits * this.nanosPerToken;
+        if (cost > this.burstNanos) {
+            return NEVER;
+        }
+        final AtomicLong bucket = bucket(clientKey);
+        while (true) {
+            final long now = this.nanoClock.getAsLong();
+            final long full = bucket.get();
+            final long next = Math.max(full, now) + cost;
+            final long excess = next - now - this.burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int clients() {
+        return this.buckets.size();
+    }
+
+    private AtomicLong bucket(String clientKey) {
+        final AtomicLong bucket = this.buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (this.buckets.size() >= this.maxClients) {
+            sweep();
+            if (this.buckets.size() >= this.maxClients) {
+                final int hash = clientKey.hashCode();
+                return this.overflowBuckets[(hash ^ hash >>> 16) & (OVERFLOW_BUCKETS - 1)];
+            }
+        }
+        return this.buckets.computeIfAbsent(clientKey, key -> new AtomicLong(this.nanoClock.getAsLong()));
+    }
+
+    // Конкурентное взятие маркеров из удаляемой корзины может потеряться: клиент получит новую полную
+    // корзину, которая отличается от удалённой не больше чем на одну операцию
+    private void sweep() {
+        final long now = this.nanoClock.getAsLong();
+        if (now - this.nextSweep < 0 || !this.sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            this.nextSweep = now + SWEEP_INTERVAL_NANOS;
+            this.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        } finally {
+            this.sweepLock.unlock();
+        }
+    }
+}
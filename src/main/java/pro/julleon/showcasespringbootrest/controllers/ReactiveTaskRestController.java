@@ -0,0 +1,103 @@
+package pro.julleon.showcasespringbootrest.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
+import pro.julleon.showcasespringbootrest.admission.Admission;
+import pro.julleon.showcasespringbootrest.admission.TaskAdmissionControl;
+import pro.julleon.showcasespringbootrest.http.dto.NewTaskPayload;
+import pro.julleon.showcasespringbootrest.ids.TaskIdGenerator;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.ReactiveTaskRepository;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorCode;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorMessages;
+import pro.julleon.showcasespringbootrest.validation.TaskValidation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("api/reactive/tasks")
+public class ReactiveTaskRestController {
+
+    private final ReactiveTaskRepository reactiveTaskRepository;
+
+    private final TaskErrorMessages taskErrorMessages;
+
+    private final TaskIdGenerator taskIdGenerator;
+
+    private final TaskAdmissionControl taskAdmissionControl;
+
+    public ReactiveTaskRestController(ReactiveTaskRepository reactiveTaskRepository,
+                                      TaskErrorMessages taskErrorMessages,
+                                      TaskIdGenerator taskIdGenerator,
+                                      TaskAdmissionControl taskAdmissionControl) {
+        this.reactiveTaskRepository = reactiveTaskRepository;
+        this.taskErrorMessages = taskErrorMessages;
+        this.taskIdGenerator = taskIdGenerator;
+        this.taskAdmissionControl = taskAdmissionControl;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Task> handelStreamAllTasks() {
+        return this.reactiveTaskRepository.findAll();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> handelCreateNewTask(
+            @RequestBody NewTaskPayload taskPayload,
+            UriComponentsBuilder uriComponentsBuilder,
+            WebRequest webRequest,
+            Locale locale
+    ) {
+        final TaskErrorCode errorCode = TaskValidation.validateNewDescription(taskPayload.description());
+        if (errorCode != null) {
+            return Mono.just(errorResponse(ResponseEntity.badRequest(), errorCode, locale));
+        }
+        final Admission admission = this.taskAdmissionControl.admit(webRequest, 1);
+        if (admission.status() == Admission.Status.STORE_FULL) {
+            return Mono.just(errorResponse(ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE),
+                    TaskErrorCode.STORE_FULL, locale));
+        } else if (admission.status() == Admission.Status.RATE_LIMITED) {
+            final ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+            admission.retryAfterSeconds()
+                    .ifPresent(seconds -> response.header(HttpHeaders.RETRY_AFTER, Long.toString(seconds)));
+            return Mono.just(errorResponse(response, TaskErrorCode.RATE_LIMITED, locale));
+        }
+        return this.reactiveTaskRepository.save(new Task(this.taskIdGenerator.nextId(), taskPayload.description(), false))
+                .<ResponseEntity<?>>map(task -> ResponseEntity
+                        .created(uriComponentsBuilder
+                                .path("/api/reactive/tasks/{taskId}")
+                                .build(Map.of("taskId", task.id())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(task));
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Task>> handelFindTask(
+            @PathVariable("id") UUID taskId
+    ) {
+        return this.reactiveTaskRepository.findById(taskId)
+                .map(task -> ResponseEntity
+                        .ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(task))
+                .defaultIfEmpty(ResponseEntity
+                        .notFound()
+                        .build());
+    }
+
+    private ResponseEntity<?> errorResponse(ResponseEntity.BodyBuilder response, TaskErrorCode errorCode,
+                                            Locale locale) {
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(this.taskErrorMessages.errors(errorCode, locale));
+    }
+}
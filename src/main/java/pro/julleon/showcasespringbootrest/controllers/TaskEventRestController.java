@@ -0,0 +1,32 @@
+package pro.julleon.showcasespringbootrest.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pro.julleon.showcasespringbootrest.events.TaskEventBroadcaster;
+
+@RestController
+@RequestMapping("api/tasks")
+@ConditionalOnProperty(name = "tasks.events.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskEventRestController {
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final TaskEventBroadcaster taskEventBroadcaster;
+
+    public TaskEventRestController(TaskEventBroadcaster taskEventBroadcaster) {
+        this.taskEventBroadcaster = taskEventBroadcaster;
+    }
+
+    // Поток task-created, task-updated и task-deleted вместо опроса GET /api/tasks
+    @GetMapping(path = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter handelSubscribeToTaskEvents(
+            @RequestHeader(name = LAST_EVENT_ID_HEADER, required = false) String lastEventId
+    ) {
+        return this.taskEventBroadcaster.subscribe(lastEventId);
+    }
+}
@@ -1,83 +1,456 @@
 package pro.julleon.showcasespringbootrest.controllers;
 
-import org.springframework.context.MessageSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
+import pro.julleon.showcasespringbootrest.admission.Admission;
+import pro.julleon.showcasespringbootrest.admission.TaskAdmissionControl;
 import pro.julleon.showcasespringbootrest.http.dto.NewTaskPayload;
+import pro.julleon.showcasespringbootrest.http.dto.TaskBatchItemPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TaskCountsPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TasksBatchPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TasksPagePresentation;
+import pro.julleon.showcasespringbootrest.http.dto.UpdateTaskPayload;
 import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+import pro.julleon.showcasespringbootrest.ids.TaskIdGenerator;
 import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
 import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorCode;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorMessages;
+import pro.julleon.showcasespringbootrest.validation.TaskValidation;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("api/tasks")
 public class TaskRestController {
 
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    // Клиент может хранить ответ, но обязан сверять его по ETag перед каждым использованием
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache();
+
     private final TaskRepository taskRepository;
 
-    private final MessageSource messageSource;
+    private final TaskErrorMessages taskErrorMessages;
+
+    private final ObjectMapper objectMapper;
+
+    private final TaskIdGenerator taskIdGenerator;
+
+    private final TaskAdmissionControl taskAdmissionControl;
+
+    // Версии хранилища начинаются заново после перезапуска, поэтому ETag включает момент запуска
+    private final String eTagPrefix = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + '.';
 
     public TaskRestController(TaskRepository taskRepository,
-                              MessageSource messageSource) {
+                              TaskErrorMessages taskErrorMessages,
+                              ObjectMapper objectMapper,
+                              TaskIdGenerator taskIdGenerator,
+                              TaskAdmissionControl taskAdmissionControl) {
         this.taskRepository = taskRepository;
-        this.messageSource = messageSource;
+        this.taskErrorMessages = taskErrorMessages;
+        this.objectMapper = objectMapper;
+        this.taskIdGenerator = taskIdGenerator;
+        this.taskAdmissionControl = taskAdmissionControl;
     }
 
     @GetMapping
-    public ResponseEntity<List<Task>> handelGetAllTasks() {
+    @Timed("tasks.http.handler")
+    public ResponseEntity<List<Task>> handelGetAllTasks(
+            @RequestParam(name = "completed", required = false) Boolean completed,
+            WebRequest webRequest
+    ) {
+        // Версия читается до данных: изменение между чтениями лишь устареет ETag, но не закэширует старые данные
+        final String eTag = weakETag(this.taskRepository.version());
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        return ResponseEntity
+                .ok()
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .body(completed == null
+                        ? this.taskRepository.findAll()
+                        : this.taskRepository.findPage(0, Integer.MAX_VALUE, completed).tasks());
+    }
+
+    @GetMapping(params = "limit")
+    @Timed("tasks.http.handler")
+    public ResponseEntity<?> handelGetTasksPage(
+            @RequestParam("limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "completed", required = false) Boolean completed,
+            WebRequest webRequest,
+            Locale locale
+    ) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            return badRequest(TaskErrorCode.PAGE_LIMIT_OUT_OF_RANGE, locale);
+        }
+
+        final long afterPosition;
+        try {
+            afterPosition = cursor == null ? 0 : decodeCursor(cursor);
+        } catch (IllegalArgumentException exception) {
+            return badRequest(TaskErrorCode.PAGE_CURSOR_INVALID, locale);
+        }
+
+        final String eTag = weakETag(this.taskRepository.version());
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        final TaskPage page = completed == null
+                ? this.taskRepository.findPage(afterPosition, limit)
+                : this.taskRepository.findPage(afterPosition, limit, completed);
         return ResponseEntity
                 .ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(this.taskRepository.findAll());
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .body(new TasksPagePresentation(page.tasks(),
+                        page.nextPosition().isPresent()
+                                ? encodeCursor(page.nextPosition().getAsLong())
+                                : null));
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Timed("tasks.http.handler")
+    public ResponseEntity<StreamingResponseBody> handelStreamAllTasks() {
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (Stream<Task> tasks = this.taskRepository.streamAll()) {
+                        for (Task task : (Iterable<Task>) tasks::iterator) {
+                            outputStream.write(this.objectMapper.writeValueAsBytes(task));
+                            outputStream.write('\n');
+                        }
+                    }
+                });
+    }
+
+    @GetMapping("counts")
+    @Timed("tasks.http.handler")
+    public ResponseEntity<TaskCountsPresentation> handelCountTasks(WebRequest webRequest) {
+        final String eTag = weakETag(this.taskRepository.version());
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        return ResponseEntity
+                .ok()
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .body(new TaskCountsPresentation(
+                        this.taskRepository.count(false),
+                        this.taskRepository.count(true)));
+    }
+
+    @GetMapping("search")
+    @Timed("tasks.http.handler")
+    public ResponseEntity<?> handelSearchTasks(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            Locale locale
+    ) {
+        if (query == null || query.isBlank()) {
+            return badRequest(TaskErrorCode.SEARCH_QUERY_NOT_SET, locale);
+        }
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            return badRequest(TaskErrorCode.PAGE_LIMIT_OUT_OF_RANGE, locale);
+        }
+        return ResponseEntity
+                .ok()
+                .body(this.taskRepository.search(query, limit));
+    }
 
     @PostMapping
+    @Timed("tasks.http.handler")
     public ResponseEntity<?> handelCreateNewTask(
             @RequestBody NewTaskPayload taskPayload,
             UriComponentsBuilder uriComponentsBuilder,
+            WebRequest webRequest,
             Locale locale
     ) {
 
-        if (taskPayload.description() == null || taskPayload.description().isBlank()) {
-            final String errorMessage = this.messageSource
-                    .getMessage("tasks.create.description.errors.not_set",
-                            new Object[0], locale);
-            return ResponseEntity
-                    .badRequest()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(new ErrorsPresentation(
-                            List.of(errorMessage)));
-        } else {
-            Task task = new Task(taskPayload.description());
-            this.taskRepository.save(task);
-            return ResponseEntity
-                    .created(uriComponentsBuilder
-                            .path("/api/tasks/{taskId}")
-                            .build(Map.of("taskId", task.id())))
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(task);
+        final TaskErrorCode errorCode = TaskValidation.validateNewDescription(taskPayload.description());
+        if (errorCode != null) {
+            return badRequest(errorCode, locale);
+        }
+        final Optional<ResponseEntity<ErrorsPresentation>> rejection =
+                rejection(this.taskAdmissionControl.admit(webRequest, 1), locale);
+        if (rejection.isPresent()) {
+            return rejection.get();
+        }
+        Task task = new Task(this.taskIdGenerator.nextId(), taskPayload.description(), false);
+        this.taskRepository.save(task);
+        return ResponseEntity
+                .created(uriComponentsBuilder
+                        .path("/api/tasks/{taskId}")
+                        .build(Map.of("taskId", task.id())))
+                .body(task);
+    }
+
+
+    @PostMapping(path = "batch", consumes = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    @Timed("tasks.http.handler")
+    public ResponseEntity<?> handelCreateNewTasksBatch(
+            @RequestBody List<NewTaskPayload> taskPayloads,
+            WebRequest webRequest,
+            Locale locale
+    ) {
+        if (taskPayloads.isEmpty() || taskPayloads.size() > MAX_BATCH_SIZE) {
+            return badRequest(TaskErrorCode.BATCH_SIZE_OUT_OF_RANGE, locale);
+        }
+        return createTasksBatch(taskPayloads, webRequest, locale);
+    }
+
+    @PostMapping(path = "batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Timed("tasks.http.handler")
+    public ResponseEntity<?> handelCreateNewTasksBatchStream(
+            InputStream inputStream,
+            WebRequest webRequest,
+            Locale locale
+    ) throws IOException {
+        final List<NewTaskPayload> taskPayloads = new ArrayList<>();
+        try (MappingIterator<NewTaskPayload> iterator = this.objectMapper
+                .readerFor(NewTaskPayload.class)
+                .readValues(inputStream)) {
+            while (iterator.hasNextValue()) {
+                if (taskPayloads.size() == MAX_BATCH_SIZE) {
+                    return badRequest(TaskErrorCode.BATCH_SIZE_OUT_OF_RANGE, locale);
+                }
+                taskPayloads.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException exception) {
+            // Обработчика исключений в приложении нет, поэтому без перехвата некорректная строка стала бы ответом 500
+            return badRequest(TaskErrorCode.BATCH_ITEM_MALFORMED, locale);
+        }
+        if (taskPayloads.isEmpty()) {
+            return badRequest(TaskErrorCode.BATCH_SIZE_OUT_OF_RANGE, locale);
         }
+        return createTasksBatch(taskPayloads, webRequest, locale);
     }
 
 
     @GetMapping("{id}")
+    @Timed("tasks.http.handler")
     public ResponseEntity<Task> handelFindTask(
-            @PathVariable("id") UUID taskId
+            @PathVariable("id") UUID taskId,
+            WebRequest webRequest
     ) {
-        return this.taskRepository.findById(taskId)
-                .map(task -> ResponseEntity
-                        .ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(task))
+        return this.taskRepository.findVersionedById(taskId)
+                .map(versionedTask -> {
+                    final String eTag = eTag(versionedTask.version());
+                    if (webRequest.checkNotModified(eTag)) {
+                        return TaskRestController.<Task>notModified(eTag);
+                    }
+                    return ResponseEntity
+                            .ok()
+                            .eTag(eTag)
+                            .cacheControl(CACHE_CONTROL)
+                            .body(versionedTask.task());
+                })
                 .orElse(ResponseEntity
                         .notFound()
                         .build());
     }
+
+    // Без If-Match конфликт с конкурентным изменением разрешается повтором на свежей версии,
+    // с If-Match изменение применяется только к версии, которую видел клиент
+    @PatchMapping("{id}")
+    @Timed("tasks.http.handler")
+    public ResponseEntity<?> handelUpdateTask(
+            @PathVariable("id") UUID taskId,
+            @RequestBody UpdateTaskPayload taskPayload,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Locale locale
+    ) {
+        final TaskErrorCode errorCode = TaskValidation.validateUpdatedDescription(taskPayload.description());
+        if (errorCode != null) {
+            return badRequest(errorCode, locale);
+        }
+        while (true) {
+            final Optional<VersionedTask> current = this.taskRepository.findVersionedById(taskId);
+            if (current.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            final VersionedTask versionedTask = current.get();
+            if (ifMatch != null && !matchesETag(ifMatch, versionedTask.version())) {
+                return preconditionFailed(locale);
+            }
+            final Task task = versionedTask.task();
+            final Optional<VersionedTask> updated = this.taskRepository.replace(new Task(taskId,
+                    taskPayload.description() == null ? task.description() : taskPayload.description(),
+                    taskPayload.completed() == null ? task.completed() : taskPayload.completed()
+            ), versionedTask.version());
+            if (updated.isPresent()) {
+                return ResponseEntity
+                        .ok()
+                        .eTag(eTag(updated.get().version()))
+                        .body(updated.get().task());
+            }
+            if (ifMatch != null) {
+                return preconditionFailed(locale);
+            }
+        }
+    }
+
+    @DeleteMapping("{id}")
+    @Timed("tasks.http.handler")
+    public ResponseEntity<?> handelDeleteTask(
+            @PathVariable("id") UUID taskId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Locale locale
+    ) {
+        while (true) {
+            final Optional<VersionedTask> current = this.taskRepository.findVersionedById(taskId);
+            if (current.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            final long version = current.get().version();
+            if (ifMatch != null && !matchesETag(ifMatch, version)) {
+                return preconditionFailed(locale);
+            }
+            if (this.taskRepository.delete(taskId, version)) {
+                return ResponseEntity.noContent().build();
+            }
+            if (ifMatch != null) {
+                return preconditionFailed(locale);
+            }
+        }
+    }
+
+    private ResponseEntity<?> createTasksBatch(List<NewTaskPayload> taskPayloads,
+                                               WebRequest webRequest,
+                                               Locale locale) {
+        final List<Task> tasks = new ArrayList<>(taskPayloads.size());
+        final List<TaskBatchItemPresentation> results = new ArrayList<>(taskPayloads.size());
+        for (NewTaskPayload taskPayload : taskPayloads) {
+            final TaskErrorCode errorCode = taskPayload == null
+                    ? TaskErrorCode.DESCRIPTION_NOT_SET
+                    : TaskValidation.validateNewDescription(taskPayload.description());
+            if (errorCode != null) {
+                results.add(new TaskBatchItemPresentation(null,
+                        this.taskErrorMessages.errors(errorCode, locale).errors()));
+            } else {
+                final Task task = new Task(this.taskIdGenerator.nextId(), taskPayload.description(), false);
+                tasks.add(task);
+                results.add(new TaskBatchItemPresentation(task.id(), null));
+            }
+        }
+        // Допуск считается по задачам, которые действительно будут сохранены; пакет принимается целиком или отклоняется
+        if (!tasks.isEmpty()) {
+            final Optional<ResponseEntity<ErrorsPresentation>> rejection =
+                    rejection(this.taskAdmissionControl.admit(webRequest, tasks.size()), locale);
+            if (rejection.isPresent()) {
+                return rejection.get();
+            }
+        }
+        this.taskRepository.saveAll(tasks);
+        return ResponseEntity
+                .ok()
+                .body(new TasksBatchPresentation(results));
+    }
+
+    private Optional<ResponseEntity<ErrorsPresentation>> rejection(Admission admission, Locale locale) {
+        return switch (admission.status()) {
+            case ADMITTED -> Optional.empty();
+            case STORE_FULL -> Optional.of(errorResponse(HttpStatus.INSUFFICIENT_STORAGE,
+                    TaskErrorCode.STORE_FULL, locale));
+            case RATE_LIMITED -> {
+                final ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS);
+                admission.retryAfterSeconds()
+                        .ifPresent(seconds -> response.header(HttpHeaders.RETRY_AFTER, Long.toString(seconds)));
+                yield Optional.of(response.body(this.taskErrorMessages.errors(TaskErrorCode.RATE_LIMITED, locale)));
+            }
+        };
+    }
+
+    private ResponseEntity<ErrorsPresentation> badRequest(TaskErrorCode errorCode, Locale locale) {
+        return errorResponse(HttpStatus.BAD_REQUEST, errorCode, locale);
+    }
+
+    private ResponseEntity<ErrorsPresentation> preconditionFailed(Locale locale) {
+        return errorResponse(HttpStatus.PRECONDITION_FAILED, TaskErrorCode.PRECONDITION_FAILED, locale);
+    }
+
+    private ResponseEntity<ErrorsPresentation> errorResponse(HttpStatus status, TaskErrorCode errorCode, Locale locale) {
+        return ResponseEntity
+                .status(status)
+                .body(this.taskErrorMessages.errors(errorCode, locale));
+    }
+
+    private String eTag(long version) {
+        return '"' + this.eTagPrefix + version + '"';
+    }
+
+    // Списки отдаются в JSON, CBOR или Smile и сжимаются gzip, поэтому их ETag слабый: он обозначает
+    // равнозначные представления, а не одинаковые байты. Tomcat не сжимает ответы с сильным ETag
+    private String weakETag(long version) {
+        return "W/" + eTag(version);
+    }
+
+    // If-Match сравнивает ETag строго: слабые теги не совпадают ни с чем, "*" — с любой версией
+    private boolean matchesETag(String ifMatch, long version) {
+        final String eTag = eTag(version);
+        for (String candidate : ifMatch.split(",")) {
+            final String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .build();
+    }
+
+    private static String encodeCursor(long position) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(position).array());
+    }
+
+    private static long decodeCursor(String cursor) {
+        final byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != Long.BYTES) {
+            throw new IllegalArgumentException("Invalid cursor length");
+        }
+        final long position = ByteBuffer.wrap(bytes).getLong();
+        if (position < 0) {
+            throw new IllegalArgumentException("Invalid cursor position");
+        }
+        return position;
+    }
 }
@@ -0,0 +1,25 @@
+package pro.julleon.showcasespringbootrest.events;
+
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.UUID;
+
+// Для удалённой задачи известен только идентификатор, task равен null
+public record TaskEvent(long sequence, Type type, UUID taskId, Task task) {
+
+    public enum Type {
+        CREATED("task-created"),
+        UPDATED("task-updated"),
+        DELETED("task-deleted");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String eventName() {
+            return this.eventName;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package pro.julleon.showcasespringbootrest.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Рассылка событий подписчикам SSE. Писатель только добавляет событие в TaskEventLog и будит диспетчера;
+// диспетчер поручает отправку пулу, причём для каждого подписчика выполняется не больше одной отправки.
+// Медленный подписчик занимает один поток пула и не задерживает писателей; если он отстал больше
+// чем на размер буфера, соединение закрывается, и клиент переподключается с Last-Event-ID
+@Component
+@ConditionalOnProperty(name = "tasks.events.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskEventBroadcaster implements AutoCloseable {
+
+    // Сообщает клиенту, что часть событий потеряна и список задач нужно перечитать
+    public static final String RESET_EVENT_NAME = "reset";
+
+    // Номера событий начинаются заново после перезапуска, поэтому идентификатор события включает момент запуска:
+    // Last-Event-ID прошлого запуска не совпадёт по нему и получит reset, даже если номер ещё не достигнут
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final TaskEventLog taskEventLog;
+
+    private final long timeoutMillis;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService senders;
+
+    private final Thread dispatcher;
+
+    private volatile boolean pending;
+
+    private volatile boolean closed;
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // Изменяется только в отправке, которая для подписчика всегда одна
+        private long nextSequence;
+
+        private boolean reset;
+
+        // Ответ завершён контейнером; изменяется и читается под монитором эмиттера
+        private boolean completed;
+
+        private Subscription(SseEmitter emitter, long nextSequence, boolean reset) {
+            this.emitter = emitter;
+            this.nextSequence = nextSequence;
+            this.reset = reset;
+        }
+    }
+
+    public TaskEventBroadcaster(
+            @Value("${tasks.events.buffer-size:4096}") int bufferSize,
+            @Value("${tasks.events.senders:4}") int senders,
+            @Value("${tasks.events.timeout:30m}") Duration timeout
+    ) {
+        this.taskEventLog = new TaskEventLog(bufferSize);
+        this.timeoutMillis = timeout.toMillis();
+        final AtomicInteger senderNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senders, runnable -> {
+            final Thread thread = new Thread(runnable, "task-events-sender-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::runDispatcher, "task-events-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public void publish(TaskEvent.Type type, UUID taskId, Task task) {
+        this.taskEventLog.append(type, taskId, task);
+        if (!this.pending) {
+            this.pending = true;
+            LockSupport.unpark(this.dispatcher);
+        }
+    }
+
+    // Без lastEventId подписчик получает только новые события; если событий после lastEventId уже нет
+    // в буфере или идентификатор относится к прошлому запуску, сначала отправляется reset, затем всё, что есть в буфере
+    public SseEmitter subscribe(String lastEventId) {
+        final SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        final long lastSequence = this.taskEventLog.lastSequence();
+        final long resumeAfter = lastEventId == null ? lastSequence : sequence(lastEventId);
+        final Subscription subscription;
+        if (resumeAfter >= this.taskEventLog.firstSequence() - 1 && resumeAfter <= lastSequence) {
+            subscription = new Subscription(emitter, resumeAfter + 1, false);
+        } else {
+            subscription = new Subscription(emitter, this.taskEventLog.firstSequence(), true);
+        }
+        try {
+            // Без первой записи заголовки ответа не отправляются до первого события
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException exception) {
+            emitter.completeWithError(exception);
+            return emitter;
+        }
+        emitter.onCompletion(() -> completed(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> completed(subscription));
+        this.subscriptions.add(subscription);
+        schedule(subscription);
+        return emitter;
+    }
+
+    public int subscribers() {
+        return this.subscriptions.size();
+    }
+
+    public long lastSequence() {
+        return this.taskEventLog.lastSequence();
+    }
+
+    // Идентификатор события для поля id и заголовка Last-Event-ID: момент запуска и номер события
+    public String eventId(long sequence) {
+        return this.epoch + '.' + sequence;
+    }
+
+    TaskEventLog taskEventLog() {
+        return this.taskEventLog;
+    }
+
+    // Номер события этого запуска или -1
+    private long sequence(String eventId) {
+        final int separator = eventId.indexOf('.');
+        if (separator < 0 || !this.epoch.equals(eventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        this.closed = true;
+        LockSupport.unpark(this.dispatcher);
+        this.dispatcher.join();
+        this.senders.shutdown();
+        this.subscriptions.forEach(this::disconnect);
+        this.senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void runDispatcher() {
+        while (!this.closed) {
+            if (!this.pending) {
+                LockSupport.park(this);
+                continue;
+            }
+            // Сброс до обхода: событие, добавленное во время обхода, вызовет следующий обход
+            this.pending = false;
+            final long lastSequence = this.taskEventLog.lastSequence();
+            for (Subscription subscription : this.subscriptions) {
+                if (subscription.nextSequence <= lastSequence) {
+                    schedule(subscription);
+                }
+            }
+        }
+    }
+
+    private void schedule(Subscription subscription) {
+        if (subscription.scheduled.compareAndSet(false, true)) {
+            try {
+                this.senders.execute(() -> send(subscription));
+            } catch (RejectedExecutionException exception) {
+                subscription.scheduled.set(false);
+            }
+        }
+    }
+
+    private void send(Subscription subscription) {
+        try {
+            // Под монитором эмиттера, на котором синхронизированы и его собственные send и complete:
+            // контейнер не завершит ответ между проверкой и записью
+            synchronized (subscription.emitter) {
+                if (subscription.completed) {
+                    return;
+                }
+                sendPending(subscription);
+            }
+        } catch (IOException | IllegalStateException exception) {
+            // Клиент отключился или ответ уже завершён: после ошибки записи ответ завершает сам контейнер
+            this.subscriptions.remove(subscription);
+            return;
+        } finally {
+            subscription.scheduled.set(false);
+        }
+        // Диспетчер пропускает подписчика, пока идёт отправка, поэтому записанное за это время событие
+        // отправляется здесь; о ещё не записанном событии писатель сообщит диспетчеру сам
+        final TaskEvent next = this.taskEventLog.read(subscription.nextSequence);
+        if (next != null && next.sequence() >= subscription.nextSequence && this.subscriptions.contains(subscription)) {
+            schedule(subscription);
+        }
+    }
+
+    private void sendPending(Subscription subscription) throws IOException {
+        if (subscription.reset) {
+            subscription.emitter.send(SseEmitter.event()
+                    .name(RESET_EVENT_NAME)
+                    .data(Map.of("lastEventId", eventId(this.taskEventLog.lastSequence()))));
+            subscription.reset = false;
+        }
+        while (true) {
+            final long sequence = subscription.nextSequence;
+            final TaskEvent event = this.taskEventLog.read(sequence);
+            if (event == null || event.sequence() < sequence) {
+                return;
+            }
+            if (event.sequence() > sequence) {
+                // Подписчик отстал больше чем на размер буфера
+                disconnect(subscription);
+                return;
+            }
+            subscription.emitter.send(SseEmitter.event()
+                    .id(eventId(sequence))
+                    .name(event.type().eventName())
+                    .data(event.task() != null ? event.task() : Map.of("id", event.taskId()),
+                            MediaType.APPLICATION_JSON));
+            subscription.nextSequence = sequence + 1;
+        }
+    }
+
+    // Tomcat переиспользует объекты завершённого запроса, поэтому complete по уже завершённому ответу
+    // может закрыть чужое соединение
+    private void disconnect(Subscription subscription) {
+        this.subscriptions.remove(subscription);
+        synchronized (subscription.emitter) {
+            if (!subscription.completed) {
+                subscription.emitter.complete();
+            }
+        }
+    }
+
+    private void completed(Subscription subscription) {
+        synchronized (subscription.emitter) {
+            subscription.completed = true;
+        }
+        this.subscriptions.remove(subscription);
+    }
+}
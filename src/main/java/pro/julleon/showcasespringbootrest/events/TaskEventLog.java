@@ -0,0 +1,49 @@
+package pro.julleon.showcasespringbootrest.events;
+
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Кольцевой буфер последних событий: писатель занимает номер и записывает событие в ячейку,
+// не дожидаясь читателей, которые отслеживают свои позиции сами. Номера начинаются с 1
+public class TaskEventLog {
+
+    private final AtomicReferenceArray<TaskEvent> slots;
+
+    private final int mask;
+
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    public TaskEventLog(int capacity) {
+        final int slotCount = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.mask = slotCount - 1;
+    }
+
+    public long append(TaskEvent.Type type, UUID taskId, Task task) {
+        final long sequence = this.lastSequence.incrementAndGet();
+        this.slots.set((int) sequence & this.mask, new TaskEvent(sequence, type, taskId, task));
+        return sequence;
+    }
+
+    // Номер последнего занятого события; само событие может быть ещё не записано
+    public long lastSequence() {
+        return this.lastSequence.get();
+    }
+
+    // Номер самого старого события, которое ещё может находиться в буфере
+    public long firstSequence() {
+        return Math.max(1, this.lastSequence.get() - this.mask);
+    }
+
+    // Событие с меньшим номером или null — заданное ещё не записано, с большим — уже вытеснено
+    public TaskEvent read(long sequence) {
+        return this.slots.get((int) sequence & this.mask);
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+}
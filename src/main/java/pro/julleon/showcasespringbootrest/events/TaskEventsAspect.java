@@ -0,0 +1,94 @@
+package pro.julleon.showcasespringbootrest.events;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+// События публикуются после успешной записи в любое хранилище, в том числе после фиксации журнала на диске.
+// Запись задачи и публикация события о ней выполняются под одной блокировкой из набора по идентификатору,
+// поэтому события одной задачи попадают в журнал в том же порядке, что и её версии
+@Aspect
+@Component
+@ConditionalOnProperty(name = "tasks.events.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskEventsAspect {
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final TaskEventBroadcaster taskEventBroadcaster;
+
+    // ReentrantLock, а не synchronized: ожидание записи в файл не закрепляет виртуальный поток за носителем
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public TaskEventsAspect(TaskEventBroadcaster taskEventBroadcaster) {
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Around("execution(* pro.julleon.showcasespringbootrest.repositories.TaskRepository.save(..)) && args(task)")
+    public Object aroundSave(ProceedingJoinPoint joinPoint, Task task) throws Throwable {
+        final ReentrantLock lock = lock(task.id());
+        lock.lock();
+        try {
+            final Object result = joinPoint.proceed();
+            this.taskEventBroadcaster.publish(TaskEvent.Type.CREATED, task.id(), task);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Пакет создаёт задачи с новыми идентификаторами, которые до ответа никому не известны
+    @AfterReturning("execution(* pro.julleon.showcasespringbootrest.repositories.TaskRepository.saveAll(..)) && args(tasks)")
+    public void afterSaveAll(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            this.taskEventBroadcaster.publish(TaskEvent.Type.CREATED, task.id(), task);
+        }
+    }
+
+    @Around("execution(* pro.julleon.showcasespringbootrest.repositories.TaskRepository.replace(..)) && args(task, ..)")
+    public Object aroundReplace(ProceedingJoinPoint joinPoint, Task task) throws Throwable {
+        final ReentrantLock lock = lock(task.id());
+        lock.lock();
+        try {
+            final Object result = joinPoint.proceed();
+            if (result instanceof Optional<?> updated && updated.orElse(null) instanceof VersionedTask versionedTask) {
+                this.taskEventBroadcaster.publish(TaskEvent.Type.UPDATED, task.id(), versionedTask.task());
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Around("execution(* pro.julleon.showcasespringbootrest.repositories.TaskRepository.delete(..)) && args(taskId, ..)")
+    public Object aroundDelete(ProceedingJoinPoint joinPoint, UUID taskId) throws Throwable {
+        final ReentrantLock lock = lock(taskId);
+        lock.lock();
+        try {
+            final Object result = joinPoint.proceed();
+            if (Boolean.TRUE.equals(result)) {
+                this.taskEventBroadcaster.publish(TaskEvent.Type.DELETED, taskId, null);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lock(UUID taskId) {
+        final int hash = taskId.hashCode();
+        return this.locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+}
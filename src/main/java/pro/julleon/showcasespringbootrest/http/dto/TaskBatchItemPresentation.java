@@ -0,0 +1,7 @@
+package pro.julleon.showcasespringbootrest.http.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TaskBatchItemPresentation(UUID id, List<String> errors) {
+}
@@ -0,0 +1,4 @@
+package pro.julleon.showcasespringbootrest.http.dto;
+
+public record TaskCountsPresentation(int open, int completed) {
+}
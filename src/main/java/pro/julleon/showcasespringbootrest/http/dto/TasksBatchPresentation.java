@@ -0,0 +1,6 @@
+package pro.julleon.showcasespringbootrest.http.dto;
+
+import java.util.List;
+
+public record TasksBatchPresentation(List<TaskBatchItemPresentation> results) {
+}
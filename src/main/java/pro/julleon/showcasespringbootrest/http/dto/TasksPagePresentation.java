@@ -0,0 +1,8 @@
+package pro.julleon.showcasespringbootrest.http.dto;
+
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.List;
+
+public record TasksPagePresentation(List<Task> tasks, String nextCursor) {
+}
@@ -0,0 +1,5 @@
+package pro.julleon.showcasespringbootrest.http.dto;
+
+// Незаданные поля остаются без изменений
+public record UpdateTaskPayload(String description, Boolean completed) {
+}
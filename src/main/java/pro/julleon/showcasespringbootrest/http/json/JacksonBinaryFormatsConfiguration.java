@@ -0,0 +1,28 @@
+package pro.julleon.showcasespringbootrest.http.json;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// CBOR и Smile для клиентов, явно запросивших их в Accept; без него ответ остаётся в JSON.
+// Бины заменяют конвертеры Spring MVC по умолчанию на тех же местах после JSON,
+// но с ObjectMapper, настроенным Spring Boot вместе с зарегистрированными модулями
+@Configuration(proxyBeanMethods = false)
+public class JacksonBinaryFormatsConfiguration {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter mappingJackson2SmileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,140 @@
+package pro.julleon.showcasespringbootrest.http.json;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Готовый JSON задач, ограниченный суммарным размером; вытесняются записи,
+// к которым не обращались с прошлого прохода стрелки (алгоритм часов)
+public class TaskJsonCache {
+
+    // Примерные накладные расходы на запись: узел ConcurrentHashMap, UUID, Entry, SerializedString
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    private final long maxBytes;
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    // Вытесняет один поток, остальные не ждут и ненадолго превышают предел
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    // Изменяется только под evictionLock
+    private Iterator<Entry> hand = Collections.emptyIterator();
+
+    // Задача хранится целиком: запись годна, только пока равна сериализуемой задаче
+    private static final class Entry {
+
+        private final Task task;
+
+        private final SerializableString json;
+
+        private final int size;
+
+        private volatile boolean referenced;
+
+        private Entry(Task task, SerializableString json, int size) {
+            this.task = task;
+            this.json = json;
+            this.size = size;
+        }
+    }
+
+    public TaskJsonCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public SerializableString get(Task task) {
+        final Entry entry = this.entries.get(task.id());
+        if (entry != null && entry.task.equals(task)) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            this.hits.increment();
+            return entry.json;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    public SerializableString put(Task task, String json) {
+        final SerializedString serialized = new SerializedString(json);
+        // Строка и её UTF-8 представление хранятся вместе
+        final int size = 2 * serialized.asUnquotedUTF8().length + ENTRY_OVERHEAD_BYTES;
+        if (size > this.maxBytes) {
+            return serialized;
+        }
+        final Entry previous = this.entries.put(task.id(), new Entry(task, serialized, size));
+        if (this.bytes.addAndGet(previous == null ? size : size - previous.size) > this.maxBytes) {
+            evict();
+        }
+        return serialized;
+    }
+
+    public long bytes() {
+        return this.bytes.get();
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    public void clear() {
+        final ReentrantLock evictionLock = this.evictionLock;
+        evictionLock.lock();
+        try {
+            for (Entry entry : this.entries.values()) {
+                if (this.entries.remove(entry.task.id(), entry)) {
+                    this.bytes.addAndGet(-entry.size);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evict() {
+        if (!this.evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (this.bytes.get() > this.maxBytes) {
+                if (!this.hand.hasNext()) {
+                    this.hand = this.entries.values().iterator();
+                    if (!this.hand.hasNext()) {
+                        return;
+                    }
+                }
+                final Entry entry = this.hand.next();
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else if (this.entries.remove(entry.task.id(), entry)) {
+                    this.bytes.addAndGet(-entry.size);
+                }
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package pro.julleon.showcasespringbootrest.http.json;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "tasks.json-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskJsonCacheConfiguration {
+
+    @Bean
+    public TaskJsonCache taskJsonCache(@Value("${tasks.json-cache.max-size:64MB}") DataSize maxSize) {
+        return new TaskJsonCache(maxSize.toBytes());
+    }
+
+    // Spring Boot регистрирует бины Module в ObjectMapper, которым пользуются и конвертер, и контроллеры
+    @Bean
+    public TaskJsonCacheModule taskJsonCacheModule(TaskJsonCache taskJsonCache) {
+        return new TaskJsonCacheModule(taskJsonCache);
+    }
+
+    @Bean
+    public MeterBinder taskJsonCacheMetrics(TaskJsonCache taskJsonCache) {
+        return meterRegistry -> {
+            Gauge.builder("tasks.json.cache.size", taskJsonCache, TaskJsonCache::bytes)
+                    .description("Approximate memory held by cached task JSON")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            FunctionCounter.builder("tasks.json.cache.requests", taskJsonCache, TaskJsonCache::hits)
+                    .description("Task JSON cache lookups")
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("tasks.json.cache.requests", taskJsonCache, TaskJsonCache::misses)
+                    .description("Task JSON cache lookups")
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+        };
+    }
+}
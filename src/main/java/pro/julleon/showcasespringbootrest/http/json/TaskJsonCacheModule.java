@@ -0,0 +1,100 @@
+package pro.julleon.showcasespringbootrest.http.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.io.IOException;
+
+// Задачи записываются в ответ готовыми фрагментами из TaskJsonCache, в том числе внутри списков и страниц;
+// при промахе фрагмент строится стандартным сериализатором, поэтому формат JSON не меняется
+public class TaskJsonCacheModule extends SimpleModule {
+
+    public TaskJsonCacheModule(TaskJsonCache taskJsonCache) {
+        super(TaskJsonCacheModule.class.getSimpleName());
+        setSerializerModifier(new BeanSerializerModifier() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config,
+                                                      BeanDescription beanDescription,
+                                                      JsonSerializer<?> serializer) {
+                return beanDescription.getBeanClass() == Task.class
+                        ? new CachedTaskSerializer((JsonSerializer<Task>) serializer, taskJsonCache)
+                        : serializer;
+            }
+        });
+    }
+
+    // Разрешение и контекстуализация передаются стандартному сериализатору: без них он, например,
+    // пропускает поля со значением null
+    private static final class CachedTaskSerializer extends StdSerializer<Task>
+            implements ResolvableSerializer, ContextualSerializer {
+
+        private final JsonSerializer<Task> delegate;
+
+        private final TaskJsonCache taskJsonCache;
+
+        private CachedTaskSerializer(JsonSerializer<Task> delegate, TaskJsonCache taskJsonCache) {
+            super(Task.class);
+            this.delegate = delegate;
+            this.taskJsonCache = taskJsonCache;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (this.delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (this.delegate instanceof ContextualSerializer contextual) {
+                final JsonSerializer<?> serializer = contextual.createContextual(provider, property);
+                if (serializer != this.delegate) {
+                    return new CachedTaskSerializer((JsonSerializer<Task>) serializer, this.taskJsonCache);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void serialize(Task task, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            // Готовый фрагмент подходит только для текстового JSON без форматирования
+            final ObjectCodec codec = generator.getCodec();
+            if (!(generator instanceof JsonGeneratorImpl) || generator.getPrettyPrinter() != null || codec == null) {
+                this.delegate.serialize(task, generator, provider);
+                return;
+            }
+            SerializableString json = this.taskJsonCache.get(task);
+            if (json == null) {
+                final JsonFactory factory = codec.getFactory();
+                final SegmentedStringWriter writer = new SegmentedStringWriter(new BufferRecycler());
+                try (JsonGenerator fragmentGenerator = factory.createGenerator(writer)) {
+                    this.delegate.serialize(task, fragmentGenerator, provider);
+                }
+                json = this.taskJsonCache.put(task, writer.getAndClear());
+            }
+            generator.writeRawValue(json);
+        }
+    }
+}
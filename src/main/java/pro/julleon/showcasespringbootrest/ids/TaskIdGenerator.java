@@ -0,0 +1,8 @@
+package pro.julleon.showcasespringbootrest.ids;
+
+import java.util.UUID;
+
+public interface TaskIdGenerator {
+
+    UUID nextId();
+}
@@ -0,0 +1,18 @@
+package pro.julleon.showcasespringbootrest.ids.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import pro.julleon.showcasespringbootrest.ids.TaskIdGenerator;
+
+import java.util.UUID;
+
+// Случайные UUIDv4 из SecureRandom: непредсказуемы, но дороже и без упорядоченности по времени
+@Component
+@ConditionalOnProperty(name = "tasks.id-generator", havingValue = "random")
+public class RandomTaskIdGenerator implements TaskIdGenerator {
+
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+}
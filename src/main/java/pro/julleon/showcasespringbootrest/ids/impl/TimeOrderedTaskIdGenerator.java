@@ -0,0 +1,39 @@
+package pro.julleon.showcasespringbootrest.ids.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import pro.julleon.showcasespringbootrest.ids.TaskIdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// UUIDv7: 48 бит времени в миллисекундах, 12 бит счётчика, 62 случайных бита.
+// Счётчик свой у каждого потока, поэтому генерация не требует синхронизации; идентификаторы одного
+// потока строго возрастают, разных потоков — упорядочены с точностью до миллисекунды.
+// Случайные биты берутся из ThreadLocalRandom: идентификаторы уникальны, но не являются секретом
+@Component
+@ConditionalOnProperty(name = "tasks.id-generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedTaskIdGenerator implements TaskIdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long VERSION = 0x7000L;
+
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    // Последние выданные время и счётчик потока: (миллисекунды << 12) | счётчик
+    private static final ThreadLocal<long[]> LAST_TIMESTAMP = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public UUID nextId() {
+        final long[] last = LAST_TIMESTAMP.get();
+        // При переполнении счётчика в пределах миллисекунды время заимствуется у следующей
+        final long timestamp = Math.max(System.currentTimeMillis() << SEQUENCE_BITS, last[0] + 1);
+        last[0] = timestamp;
+        return new UUID(
+                (timestamp >>> SEQUENCE_BITS) << 16 | VERSION | (timestamp & ((1 << SEQUENCE_BITS) - 1)),
+                VARIANT | ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+    }
+}
@@ -0,0 +1,82 @@
+package pro.julleon.showcasespringbootrest.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+public class MeteredMappingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Timer serializationTimer;
+
+    private final DistributionSummary responseSize;
+
+    public MeteredMappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.serializationTimer = Timer.builder("tasks.http.json.serialization")
+                .description("Time spent serializing response bodies to JSON")
+                .register(meterRegistry);
+        this.responseSize = DistributionSummary.builder("tasks.http.json.response.size")
+                .description("Size of JSON response bodies")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        final CountingHttpOutputMessage countingOutputMessage = new CountingHttpOutputMessage(outputMessage);
+        final long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, countingOutputMessage);
+        } finally {
+            this.serializationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            this.responseSize.record(countingOutputMessage.count);
+        }
+    }
+
+    // Подсчёт записанных байт без буферизации: Jackson сам пишет в поток крупными блоками
+    private static final class CountingHttpOutputMessage implements HttpOutputMessage {
+
+        private final HttpOutputMessage delegate;
+
+        private long count;
+
+        private CountingHttpOutputMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.delegate.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return new FilterOutputStream(this.delegate.getBody()) {
+
+                @Override
+                public void write(int b) throws IOException {
+                    this.out.write(b);
+                    count++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    this.out.write(b, off, len);
+                    count += len;
+                }
+            };
+        }
+    }
+}
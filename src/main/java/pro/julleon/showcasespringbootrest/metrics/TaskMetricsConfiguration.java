@@ -0,0 +1,29 @@
+package pro.julleon.showcasespringbootrest.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+@Configuration(proxyBeanMethods = false)
+public class TaskMetricsConfiguration {
+
+    // Заменяет конвертер Jackson по умолчанию, ObjectMapper остаётся настроенным Spring Boot
+    @Bean
+    public MeteredMappingJackson2HttpMessageConverter meteredMappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new MeteredMappingJackson2HttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder taskStoreMetrics(TaskRepository taskRepository) {
+        return meterRegistry -> Gauge.builder("tasks.store.size", taskRepository, TaskRepository::size)
+                .description("Number of tasks in the store")
+                .tag("repository", AopUtils.getTargetClass(taskRepository).getSimpleName())
+                .register(meterRegistry);
+    }
+}
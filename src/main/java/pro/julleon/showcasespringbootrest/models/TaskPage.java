@@ -0,0 +1,7 @@
+package pro.julleon.showcasespringbootrest.models;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+public record TaskPage(List<Task> tasks, OptionalLong nextPosition) {
+}
@@ -0,0 +1,4 @@
+package pro.julleon.showcasespringbootrest.models;
+
+public record VersionedTask(Task task, long version) {
+}
@@ -0,0 +1,16 @@
+package pro.julleon.showcasespringbootrest.repositories;
+
+import pro.julleon.showcasespringbootrest.models.Task;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveTaskRepository {
+
+    Flux<Task> findAll();
+
+    Mono<Task> save(Task task);
+
+    Mono<Task> findById(UUID taskId);
+}
@@ -1,16 +1,49 @@
 package pro.julleon.showcasespringbootrest.repositories;
 
 import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TaskRepository {
 
     List<Task> findAll();
 
+    TaskPage findPage(long afterPosition, int limit);
+
+    // Страница задач с заданным признаком выполнения; позиции те же, что и у findPage без фильтра
+    TaskPage findPage(long afterPosition, int limit, boolean completed);
+
+    Stream<Task> streamAll();
+
     void save(Task task);
 
+    void saveAll(Collection<Task> tasks);
+
+    // Условная замена: выполняется, только если текущая версия задачи равна ожидаемой
+    Optional<VersionedTask> replace(Task task, long expectedVersion);
+
+    // Условное удаление: выполняется, только если текущая версия задачи равна ожидаемой
+    boolean delete(UUID taskId, long expectedVersion);
+
     Optional<Task> findById(UUID taskId);
+
+    // Задачи, описание которых содержит все слова запроса (или их префиксы), по убыванию релевантности
+    List<Task> search(String query, int limit);
+
+    // Версия задачи уникальна в пределах хранилища и меняется при каждом её сохранении
+    Optional<VersionedTask> findVersionedById(UUID taskId);
+
+    // Версия хранилища меняется после каждого изменения, видимого читателям
+    long version();
+
+    int size();
+
+    // Число задач с заданным признаком выполнения, без обхода хранилища
+    int count(boolean completed);
 }
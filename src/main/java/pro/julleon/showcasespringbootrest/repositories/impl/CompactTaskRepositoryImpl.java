@@ -0,0 +1,537 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Repository
+@Timed("tasks.repository")
+@ConditionalOnProperty(name = "tasks.repository.type", havingValue = "compact")
+public class CompactTaskRepositoryImpl implements TaskRepository {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int ARENA_CHUNK_BYTES = 1 << 20;
+
+    private static final int NULL_DESCRIPTION = -1;
+
+    // Слот удалённой задачи остаётся за её идентификатором и переиспользуется при повторном сохранении
+    // до ближайшего уплотнения
+    private static final int DELETED = -2;
+
+    private static final int STREAM_PAGE_SIZE = 1024;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Изменяется под блокировкой записи вместе с массивами; null, если поисковый индекс выключен
+    private final SlotSearchIndex searchIndex;
+
+    // Идентификаторы задач парами long: [2 * slot] — старшие биты, [2 * slot + 1] — младшие
+    private long[] ids = new long[2 * INITIAL_CAPACITY];
+
+    // Адрес описания в арене: номер блока в старших 32 битах, смещение в младших
+    private long[] descriptionAddresses = new long[INITIAL_CAPACITY];
+
+    private int[] descriptionLengths = new int[INITIAL_CAPACITY];
+
+    private boolean[] completed = new boolean[INITIAL_CAPACITY];
+
+    private long[] versions = new long[INITIAL_CAPACITY];
+
+    // Позиция задачи для курсоров страниц; растёт вместе с номером слота и не меняется при уплотнении
+    private long[] positions = new long[INITIAL_CAPACITY];
+
+    // Битовые карты слотов неудалённых задач по признаку выполнения: [0] — открытые, [1] — выполненные
+    private long[][] statusSlots = {new long[INITIAL_CAPACITY / Long.SIZE], new long[INITIAL_CAPACITY / Long.SIZE]};
+
+    private final int[] statusCounts = new int[2];
+
+    // Открытая адресация с линейным пробированием: номер слота + 1, 0 — свободная ячейка
+    private int[] table = new int[2 * INITIAL_CAPACITY];
+
+    // Описания в UTF-8, уложенные подряд в блоки по 1 МБ
+    private byte[][] arena = new byte[16][];
+
+    private int arenaChunks;
+
+    private int arenaOffset = ARENA_CHUNK_BYTES;
+
+    private long arenaBytes;
+
+    // Байты описаний заменённых и удалённых задач, которые освободит уплотнение
+    private long garbageBytes;
+
+    private int count;
+
+    private long lastPosition;
+
+    private int deletedCount;
+
+    // Меняется только под блокировкой записи; служит и версией хранилища, и источником версий задач
+    private long version;
+
+    public CompactTaskRepositoryImpl(@Value("${tasks.search.enabled:false}") boolean searchEnabled) {
+        this.searchIndex = searchEnabled ? new SlotSearchIndex() : null;
+    }
+
+    @Override
+    public List<Task> findAll() {
+        final long stamp = this.lock.readLock();
+        try {
+            final List<Task> tasks = new ArrayList<>(this.count - this.deletedCount);
+            for (int slot = 0; slot < this.count; slot++) {
+                if (this.descriptionLengths[slot] != DELETED) {
+                    tasks.add(materialize(slot));
+                }
+            }
+            return tasks;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public TaskPage findPage(long afterPosition, int limit) {
+        final long stamp = this.lock.readLock();
+        try {
+            final List<Task> page = new ArrayList<>(Math.min(limit, this.count));
+            int slot = firstSlotAfter(afterPosition);
+            for (; slot < this.count && page.size() < limit; slot++) {
+                if (this.descriptionLengths[slot] != DELETED) {
+                    page.add(materialize(slot));
+                }
+            }
+            return new TaskPage(page, slot < this.count
+                    ? OptionalLong.of(this.positions[slot] - 1)
+                    : OptionalLong.empty());
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public TaskPage findPage(long afterPosition, int limit, boolean completed) {
+        final long stamp = this.lock.readLock();
+        try {
+            // Слоты перебираются по битовой карте: пропуск 64 слотов чужого статуса — одно сравнение
+            final long[] slots = this.statusSlots[status(completed)];
+            final List<Task> page = new ArrayList<>(Math.min(limit, this.statusCounts[status(completed)]));
+            int slot = nextSlot(slots, firstSlotAfter(afterPosition));
+            for (; slot >= 0 && page.size() < limit; slot = nextSlot(slots, slot + 1)) {
+                page.add(materialize(slot));
+            }
+            return new TaskPage(page, slot >= 0
+                    ? OptionalLong.of(this.positions[slot] - 1)
+                    : OptionalLong.empty());
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    // Лениво по страницам: уплотнение меняет номера слотов, но не позиции
+    @Override
+    public Stream<Task> streamAll() {
+        return Stream.iterate(findPage(0, STREAM_PAGE_SIZE),
+                        Objects::nonNull,
+                        page -> page.nextPosition().isPresent()
+                                ? findPage(page.nextPosition().getAsLong(), STREAM_PAGE_SIZE)
+                                : null)
+                .flatMap(page -> page.tasks().stream());
+    }
+
+    @Override
+    public void save(Task task) {
+        final long stamp = this.lock.writeLock();
+        try {
+            store(task);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Task> tasks) {
+        final long stamp = this.lock.writeLock();
+        try {
+            ensureCapacity(this.count + tasks.size());
+            tasks.forEach(this::store);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<VersionedTask> replace(Task task, long expectedVersion) {
+        final long stamp = this.lock.writeLock();
+        try {
+            final int slot = findSlot(task.id().getMostSignificantBits(), task.id().getLeastSignificantBits());
+            if (slot < 0 || this.descriptionLengths[slot] == DELETED || this.versions[slot] != expectedVersion) {
+                return Optional.empty();
+            }
+            return Optional.of(new VersionedTask(task, store(task)));
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean delete(UUID taskId, long expectedVersion) {
+        final long stamp = this.lock.writeLock();
+        try {
+            final int slot = findSlot(taskId.getMostSignificantBits(), taskId.getLeastSignificantBits());
+            if (slot < 0 || this.descriptionLengths[slot] == DELETED || this.versions[slot] != expectedVersion) {
+                return false;
+            }
+            if (this.searchIndex != null) {
+                this.searchIndex.remove(slot, description(slot));
+            }
+            unmarkStatus(slot);
+            this.garbageBytes += Math.max(this.descriptionLengths[slot], 0);
+            this.descriptionLengths[slot] = DELETED;
+            this.deletedCount++;
+            this.versions[slot] = ++this.version;
+            return true;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<Task> findById(UUID taskId) {
+        final long mostSignificantBits = taskId.getMostSignificantBits();
+        final long leastSignificantBits = taskId.getLeastSignificantBits();
+        return Optional.ofNullable(read(() -> {
+            final int slot = findSlot(mostSignificantBits, leastSignificantBits);
+            return slot < 0 || this.descriptionLengths[slot] == DELETED ? null : materialize(slot);
+        }));
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        if (this.searchIndex == null) {
+            return TaskSearchIndex.scan(findAll(), query, limit);
+        }
+        final long stamp = this.lock.readLock();
+        try {
+            final int[] slots = this.searchIndex.search(query, limit, this.count - this.deletedCount,
+                    slot -> this.versions[slot], this::description);
+            final List<Task> found = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                found.add(materialize(slot));
+            }
+            return found;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Optional<VersionedTask> findVersionedById(UUID taskId) {
+        final long mostSignificantBits = taskId.getMostSignificantBits();
+        final long leastSignificantBits = taskId.getLeastSignificantBits();
+        return Optional.ofNullable(read(() -> {
+            final int slot = findSlot(mostSignificantBits, leastSignificantBits);
+            return slot < 0 || this.descriptionLengths[slot] == DELETED
+                    ? null
+                    : new VersionedTask(materialize(slot), this.versions[slot]);
+        }));
+    }
+
+    @Override
+    public long version() {
+        return read(() -> this.version);
+    }
+
+    @Override
+    public int size() {
+        return read(() -> this.count - this.deletedCount);
+    }
+
+    @Override
+    public int count(boolean completed) {
+        return read(() -> this.statusCounts[status(completed)]);
+    }
+
+    // Занятые слоты вместе с ещё не уплотнёнными удалёнными и байты арены вместе с устаревшими описаниями
+    int allocatedSlots() {
+        return read(() -> this.count);
+    }
+
+    long arenaBytes() {
+        return read(() -> this.arenaBytes);
+    }
+
+    // Оптимистичное чтение без блокировки; при конкурентной записи повторяется под блокировкой чтения
+    private <T> T read(Supplier<T> reader) {
+        final long optimisticStamp = this.lock.tryOptimisticRead();
+        if (optimisticStamp != 0) {
+            try {
+                final T result = reader.get();
+                if (this.lock.validate(optimisticStamp)) {
+                    return result;
+                }
+            } catch (RuntimeException inconsistentRead) {
+                // Массивы заменялись во время чтения, результат недействителен
+            }
+        }
+        final long stamp = this.lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    // Возвращает новую версию задачи: уплотнение в начале записи перенумеровывает слоты
+    private long store(Task task) {
+        compactIfWasteful();
+        final long mostSignificantBits = task.id().getMostSignificantBits();
+        final long leastSignificantBits = task.id().getLeastSignificantBits();
+        int slot = findSlot(mostSignificantBits, leastSignificantBits);
+        String oldDescription = null;
+        if (slot < 0) {
+            ensureCapacity(this.count + 1);
+            slot = this.count;
+            this.ids[2 * slot] = mostSignificantBits;
+            this.ids[2 * slot + 1] = leastSignificantBits;
+            this.positions[slot] = ++this.lastPosition;
+            insertIntoTable(this.table, slot);
+            this.count++;
+        } else if (this.descriptionLengths[slot] == DELETED) {
+            this.deletedCount--;
+        } else {
+            unmarkStatus(slot);
+            if (this.searchIndex != null) {
+                oldDescription = description(slot);
+            }
+            this.garbageBytes += Math.max(this.descriptionLengths[slot], 0);
+        }
+        // Описание заменённой задачи остаётся в арене до ближайшего уплотнения
+        writeDescription(slot, task.description());
+        this.completed[slot] = task.completed();
+        markStatus(slot);
+        this.versions[slot] = ++this.version;
+        if (this.searchIndex != null) {
+            this.searchIndex.index(slot, oldDescription, task.description());
+        }
+        return this.versions[slot];
+    }
+
+    private int findSlot(long mostSignificantBits, long leastSignificantBits) {
+        final int[] table = this.table;
+        final long[] ids = this.ids;
+        final int mask = table.length - 1;
+        int index = hash(mostSignificantBits, leastSignificantBits) & mask;
+        for (int probes = 0; probes < table.length; probes++) {
+            final int entry = table[index];
+            if (entry == 0) {
+                return -1;
+            }
+            final int slot = entry - 1;
+            if (ids[2 * slot] == mostSignificantBits && ids[2 * slot + 1] == leastSignificantBits) {
+                return slot;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insertIntoTable(int[] table, int slot) {
+        final int mask = table.length - 1;
+        int index = hash(this.ids[2 * slot], this.ids[2 * slot + 1]) & mask;
+        while (table[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        table[index] = slot + 1;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > this.completed.length) {
+            final int capacity = Math.max(required, this.completed.length * 2);
+            this.ids = Arrays.copyOf(this.ids, 2 * capacity);
+            this.descriptionAddresses = Arrays.copyOf(this.descriptionAddresses, capacity);
+            this.descriptionLengths = Arrays.copyOf(this.descriptionLengths, capacity);
+            this.completed = Arrays.copyOf(this.completed, capacity);
+            this.versions = Arrays.copyOf(this.versions, capacity);
+            this.positions = Arrays.copyOf(this.positions, capacity);
+            final int statusWords = (capacity + Long.SIZE - 1) / Long.SIZE;
+            this.statusSlots = new long[][]{
+                    Arrays.copyOf(this.statusSlots[0], statusWords),
+                    Arrays.copyOf(this.statusSlots[1], statusWords)
+            };
+        }
+        // Заполненность таблицы не превышает половины, чтобы цепочки пробирования оставались короткими
+        if (2 * required > this.table.length) {
+            int tableLength = this.table.length;
+            while (2 * required > tableLength) {
+                tableLength *= 2;
+            }
+            final int[] table = new int[tableLength];
+            for (int slot = 0; slot < this.count; slot++) {
+                insertIntoTable(table, slot);
+            }
+            this.table = table;
+        }
+    }
+
+    private void writeDescription(int slot, String description) {
+        if (description == null) {
+            this.descriptionLengths[slot] = NULL_DESCRIPTION;
+            return;
+        }
+        final byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        writeDescription(slot, bytes, 0, bytes.length);
+    }
+
+    private void writeDescription(int slot, byte[] bytes, int offset, int length) {
+        if (this.arenaOffset + length > ARENA_CHUNK_BYTES) {
+            if (this.arenaChunks == this.arena.length) {
+                this.arena = Arrays.copyOf(this.arena, this.arena.length * 2);
+            }
+            this.arena[this.arenaChunks++] = new byte[Math.max(ARENA_CHUNK_BYTES, length)];
+            this.arenaOffset = 0;
+        }
+        final int chunk = this.arenaChunks - 1;
+        System.arraycopy(bytes, offset, this.arena[chunk], this.arenaOffset, length);
+        this.descriptionAddresses[slot] = ((long) chunk << 32) | this.arenaOffset;
+        this.descriptionLengths[slot] = length;
+        this.arenaOffset += length;
+        this.arenaBytes += length;
+    }
+
+    // Удалённые слоты и описания, занимающие больше половины места, уплотняются перед очередной записью:
+    // затраты на уплотнение распределяются по удалениям и заменам, которые его вызвали
+    private void compactIfWasteful() {
+        if (this.deletedCount >= INITIAL_CAPACITY && 2 * this.deletedCount > this.count
+            || this.garbageBytes >= ARENA_CHUNK_BYTES && 2 * this.garbageBytes > this.arenaBytes) {
+            compact();
+        }
+    }
+
+    // Живые слоты сдвигаются к началу с сохранением порядка и позиций, описания переписываются в новую арену
+    private void compact() {
+        final int[] newSlots = new int[this.count];
+        final byte[][] oldArena = this.arena;
+        this.arena = new byte[16][];
+        this.arenaChunks = 0;
+        this.arenaOffset = ARENA_CHUNK_BYTES;
+        this.arenaBytes = 0;
+        this.garbageBytes = 0;
+        Arrays.fill(this.statusSlots[0], 0);
+        Arrays.fill(this.statusSlots[1], 0);
+        int live = 0;
+        for (int slot = 0; slot < this.count; slot++) {
+            final int length = this.descriptionLengths[slot];
+            if (length == DELETED) {
+                newSlots[slot] = -1;
+                continue;
+            }
+            this.ids[2 * live] = this.ids[2 * slot];
+            this.ids[2 * live + 1] = this.ids[2 * slot + 1];
+            this.completed[live] = this.completed[slot];
+            this.versions[live] = this.versions[slot];
+            this.positions[live] = this.positions[slot];
+            if (length == NULL_DESCRIPTION) {
+                this.descriptionLengths[live] = NULL_DESCRIPTION;
+            } else {
+                final long address = this.descriptionAddresses[slot];
+                writeDescription(live, oldArena[(int) (address >>> 32)], (int) address, length);
+            }
+            this.statusSlots[status(this.completed[live])][live / Long.SIZE] |= 1L << live;
+            newSlots[slot] = live++;
+        }
+        this.count = live;
+        this.deletedCount = 0;
+        Arrays.fill(this.table, 0);
+        for (int slot = 0; slot < this.count; slot++) {
+            insertIntoTable(this.table, slot);
+        }
+        if (this.searchIndex != null) {
+            this.searchIndex.renumber(newSlots);
+        }
+    }
+
+    // Первый слот с позицией больше заданной; позиции слотов возрастают
+    private int firstSlotAfter(long afterPosition) {
+        int low = 0;
+        int high = this.count;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (this.positions[middle] <= afterPosition) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Task materialize(int slot) {
+        return new Task(new UUID(this.ids[2 * slot], this.ids[2 * slot + 1]), description(slot), this.completed[slot]);
+    }
+
+    private String description(int slot) {
+        final int length = this.descriptionLengths[slot];
+        if (length == NULL_DESCRIPTION) {
+            return null;
+        }
+        final long address = this.descriptionAddresses[slot];
+        return new String(this.arena[(int) (address >>> 32)], (int) address, length, StandardCharsets.UTF_8);
+    }
+
+    private void markStatus(int slot) {
+        this.statusSlots[status(this.completed[slot])][slot / Long.SIZE] |= 1L << slot;
+        this.statusCounts[status(this.completed[slot])]++;
+    }
+
+    private void unmarkStatus(int slot) {
+        this.statusSlots[status(this.completed[slot])][slot / Long.SIZE] &= ~(1L << slot);
+        this.statusCounts[status(this.completed[slot])]--;
+    }
+
+    private static int status(boolean completed) {
+        return completed ? 1 : 0;
+    }
+
+    // Ближайший отмеченный слот, начиная с заданного, или -1
+    private static int nextSlot(long[] slots, int fromSlot) {
+        int word = fromSlot / Long.SIZE;
+        if (word >= slots.length) {
+            return -1;
+        }
+        long bits = slots[word] & (-1L << fromSlot);
+        while (bits == 0) {
+            if (++word == slots.length) {
+                return -1;
+            }
+            bits = slots[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+    private static int hash(long mostSignificantBits, long leastSignificantBits) {
+        long hash = mostSignificantBits ^ leastSignificantBits;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+}
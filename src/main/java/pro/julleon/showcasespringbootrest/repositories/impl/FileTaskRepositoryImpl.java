@@ -0,0 +1,559 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+@Repository
+@Timed("tasks.repository")
+@ConditionalOnProperty(name = "tasks.repository.type", havingValue = "file")
+public class FileTaskRepositoryImpl implements TaskRepository, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileTaskRepositoryImpl.class);
+
+    static final String LOG_FILE_NAME = "tasks.log";
+
+    static final String SNAPSHOT_FILE_NAME = "tasks.snapshot";
+
+    // Журнал, отложенный на время записи снимка: удаляется, когда снимок, покрывающий его, сохранён на диск
+    static final String ROTATED_LOG_FILE_NAME = "tasks.log.old";
+
+    // Заголовок записи: длина содержимого и контрольная сумма
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+
+    private static final byte SAVE_RECORD = 1;
+
+    private static final byte DELETE_RECORD = 2;
+
+    private static final int MAX_MAPPED_REGION = 1 << 30;
+
+    private static final int REPLAY_BATCH_SIZE = 10_000;
+
+    private static final PendingWrite CLOSE = PendingWrite.save(List.of());
+
+    private final InMemoryTaskRepositoryImpl index;
+
+    private final BlockingQueue<PendingWrite> pendingWrites = new LinkedBlockingQueue<>();
+
+    // Исключает постановку записи в очередь после маркера закрытия
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    private final Path directory;
+
+    private final int snapshotThreshold;
+
+    private final int maxBatchSize;
+
+    // Заменяется только потоком записи при ротации журнала
+    private FileChannel logChannel;
+
+    private final Thread writer;
+
+    // Снимок пишется отдельным потоком, чтобы не останавливать фиксацию записей; одновременно не больше одного
+    private volatile Thread snapshotWriter;
+
+    private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(64 * 1024);
+
+    private long recordsSinceSnapshot;
+
+    private boolean closed;
+
+    public FileTaskRepositoryImpl(
+            @Value("${tasks.repository.file.directory:data}") Path directory,
+            @Value("${tasks.repository.file.snapshot-threshold:1000000}") int snapshotThreshold,
+            @Value("${tasks.repository.file.max-batch-size:1024}") int maxBatchSize,
+            @Value("${tasks.search.enabled:false}") boolean searchEnabled
+    ) {
+        // Без поискового индекса восстановление не разбирает описания на термы
+        this.index = new InMemoryTaskRepositoryImpl(searchEnabled);
+        this.directory = directory;
+        this.snapshotThreshold = snapshotThreshold;
+        this.maxBatchSize = maxBatchSize;
+        try {
+            Files.createDirectories(directory);
+            replay(directory.resolve(SNAPSHOT_FILE_NAME), false);
+            replay(directory.resolve(ROTATED_LOG_FILE_NAME), true);
+            final long validLogLength = replay(directory.resolve(LOG_FILE_NAME), true);
+            this.logChannel = FileChannel.open(directory.resolve(LOG_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // Отбрасываем недописанный при аварии хвост журнала
+            this.logChannel.truncate(validLogLength);
+            this.logChannel.position(validLogLength);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        this.writer = new Thread(this::runWriter, "task-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return this.index.findAll();
+    }
+
+    @Override
+    public TaskPage findPage(long afterPosition, int limit) {
+        return this.index.findPage(afterPosition, limit);
+    }
+
+    @Override
+    public TaskPage findPage(long afterPosition, int limit, boolean completed) {
+        return this.index.findPage(afterPosition, limit, completed);
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        return this.index.streamAll();
+    }
+
+    @Override
+    public void save(Task task) {
+        write(PendingWrite.save(List.of(task)));
+    }
+
+    @Override
+    public void saveAll(Collection<Task> tasks) {
+        if (!tasks.isEmpty()) {
+            write(PendingWrite.save(List.copyOf(tasks)));
+        }
+    }
+
+    // Версия проверяется потоком записи непосредственно перед фиксацией, он единственный изменяет индекс
+    @Override
+    public Optional<VersionedTask> replace(Task task, long expectedVersion) {
+        return write(PendingWrite.replace(task, expectedVersion));
+    }
+
+    @Override
+    public boolean delete(UUID taskId, long expectedVersion) {
+        return write(PendingWrite.delete(taskId, expectedVersion)).isPresent();
+    }
+
+    @Override
+    public Optional<Task> findById(UUID taskId) {
+        return this.index.findById(taskId);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return this.index.search(query, limit);
+    }
+
+    @Override
+    public Optional<VersionedTask> findVersionedById(UUID taskId) {
+        return this.index.findVersionedById(taskId);
+    }
+
+    @Override
+    public long version() {
+        return this.index.version();
+    }
+
+    @Override
+    public int size() {
+        return this.index.size();
+    }
+
+    @Override
+    public int count(boolean completed) {
+        return this.index.count(completed);
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    @Override
+    public void close() throws InterruptedException, IOException {
+        this.closeLock.writeLock().lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.pendingWrites.add(CLOSE);
+        } finally {
+            this.closeLock.writeLock().unlock();
+        }
+        this.writer.join();
+        final Thread snapshotWriter = this.snapshotWriter;
+        if (snapshotWriter != null) {
+            snapshotWriter.join();
+        }
+        this.logChannel.close();
+    }
+
+    private Optional<VersionedTask> write(PendingWrite pendingWrite) {
+        this.closeLock.readLock().lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("Task repository is closed");
+            }
+            this.pendingWrites.add(pendingWrite);
+        } finally {
+            this.closeLock.readLock().unlock();
+        }
+        try {
+            return pendingWrite.done().get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for task log commit", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    // Групповая фиксация: все накопившиеся записи пишутся в журнал и синхронизируются с диском одним force
+    private void runWriter() {
+        final List<PendingWrite> batch = new ArrayList<>(this.maxBatchSize);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(this.pendingWrites.take());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            this.pendingWrites.drainTo(batch, this.maxBatchSize - 1);
+
+            running = !batch.remove(CLOSE);
+            // Любая ошибка завершает только записи своего пакета: без потока записи все вызовы write() зависли бы
+            try {
+                commit(batch);
+            } catch (IOException exception) {
+                final UncheckedIOException failure = new UncheckedIOException(exception);
+                batch.forEach(pendingWrite -> pendingWrite.done().completeExceptionally(failure));
+            } catch (RuntimeException exception) {
+                LOGGER.error("Failed to commit task log batch", exception);
+                batch.forEach(pendingWrite -> pendingWrite.done().completeExceptionally(exception));
+            }
+            batch.clear();
+
+            if (this.recordsSinceSnapshot >= this.snapshotThreshold && this.snapshotWriter == null) {
+                try {
+                    startSnapshot();
+                } catch (IOException | RuntimeException exception) {
+                    // Журнал по-прежнему полон, снимок будет повторён после следующей фиксации
+                    LOGGER.error("Failed to start task snapshot", exception);
+                }
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite> batch) throws IOException {
+        rejectConflictingWrites(batch);
+        append(batch);
+        for (PendingWrite pendingWrite : batch) {
+            pendingWrite.done().complete(apply(pendingWrite));
+            this.recordsSinceSnapshot += pendingWrite.delete() ? 1 : pendingWrite.tasks().size();
+        }
+    }
+
+    // Условная запись отклоняется, если версия в индексе не совпала или задачу уже изменила
+    // более ранняя запись того же пакета: её новая версия станет известна только после фиксации
+    private void rejectConflictingWrites(List<PendingWrite> batch) {
+        if (batch.stream().noneMatch(PendingWrite::conditional)) {
+            return;
+        }
+        final Set<UUID> modified = new HashSet<>();
+        for (Iterator<PendingWrite> iterator = batch.iterator(); iterator.hasNext(); ) {
+            final PendingWrite pendingWrite = iterator.next();
+            if (pendingWrite.conditional()) {
+                final boolean matches = !modified.contains(pendingWrite.taskId()) && this.index
+                        .findVersionedById(pendingWrite.taskId())
+                        .filter(versionedTask -> versionedTask.version() == pendingWrite.expectedVersion())
+                        .isPresent();
+                if (!matches) {
+                    pendingWrite.done().complete(Optional.empty());
+                    iterator.remove();
+                    continue;
+                }
+                modified.add(pendingWrite.taskId());
+            } else {
+                pendingWrite.tasks().forEach(task -> modified.add(task.id()));
+            }
+        }
+    }
+
+    private Optional<VersionedTask> apply(PendingWrite pendingWrite) {
+        if (!pendingWrite.conditional()) {
+            this.index.saveAll(pendingWrite.tasks());
+            return Optional.empty();
+        }
+        if (pendingWrite.delete()) {
+            final Optional<VersionedTask> deleted = this.index.findVersionedById(pendingWrite.taskId());
+            this.index.delete(pendingWrite.taskId(), pendingWrite.expectedVersion());
+            return deleted;
+        }
+        return this.index.replace(pendingWrite.tasks().get(0), pendingWrite.expectedVersion());
+    }
+
+    private void append(List<PendingWrite> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        this.writeBuffer.clear();
+        for (PendingWrite pendingWrite : batch) {
+            if (pendingWrite.delete()) {
+                this.writeBuffer = encodeDelete(this.writeBuffer, pendingWrite.taskId());
+            }
+            for (Task task : pendingWrite.tasks()) {
+                this.writeBuffer = encode(this.writeBuffer, task);
+            }
+        }
+        final long start = this.logChannel.position();
+        try {
+            flush(this.writeBuffer, this.logChannel);
+            this.logChannel.force(false);
+        } catch (IOException exception) {
+            // Частично записанный пакет удаляется, чтобы следующие записи не оказались за повреждённой
+            this.logChannel.truncate(start);
+            this.logChannel.position(start);
+            throw exception;
+        }
+    }
+
+    // Поток записи копирует задачи (он единственный изменяет индекс, копия согласована) и откладывает
+    // журнал; дальнейшие записи идут в новый журнал, а снимок копии пишется в фоне. Отложенный журнал
+    // остаётся после неудачного снимка и удаляется следующим: всё в нём старше копии, а повтор
+    // записей поверх снимка при восстановлении идемпотентен
+    private void startSnapshot() throws IOException {
+        final List<Task> tasks = this.index.findAll();
+        final Path rotatedLog = this.directory.resolve(ROTATED_LOG_FILE_NAME);
+        if (!Files.exists(rotatedLog)) {
+            this.logChannel.force(true);
+            this.logChannel.close();
+            Files.move(this.directory.resolve(LOG_FILE_NAME), rotatedLog, StandardCopyOption.ATOMIC_MOVE);
+            this.logChannel = FileChannel.open(this.directory.resolve(LOG_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        this.recordsSinceSnapshot = 0;
+        final Thread snapshotWriter = new Thread(() -> {
+            try {
+                writeSnapshot(tasks);
+                Files.deleteIfExists(rotatedLog);
+            } catch (IOException | RuntimeException exception) {
+                LOGGER.error("Failed to write task snapshot", exception);
+            } finally {
+                this.snapshotWriter = null;
+            }
+        }, "task-snapshot-writer");
+        snapshotWriter.setDaemon(true);
+        this.snapshotWriter = snapshotWriter;
+        snapshotWriter.start();
+    }
+
+    private void writeSnapshot(List<Task> tasks) throws IOException {
+        final Path snapshot = this.directory.resolve(SNAPSHOT_FILE_NAME);
+        final Path temporary = this.directory.resolve(SNAPSHOT_FILE_NAME + ".tmp");
+        try (FileChannel snapshotChannel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            for (Task task : tasks) {
+                buffer = encode(buffer, task);
+                if (buffer.position() > buffer.capacity() / 2) {
+                    flush(buffer, snapshotChannel);
+                    buffer.clear();
+                }
+            }
+            flush(buffer, snapshotChannel);
+            snapshotChannel.force(true);
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static ByteBuffer encode(ByteBuffer writeBuffer, Task task) {
+        final byte[] description = task.description() == null
+                ? null
+                : task.description().getBytes(StandardCharsets.UTF_8);
+        final int payloadLength = 1 + Long.BYTES + Long.BYTES + 1 + Integer.BYTES
+                                  + (description == null ? 0 : description.length);
+        final ByteBuffer buffer = ensureCapacity(writeBuffer, HEADER_BYTES + payloadLength);
+        final int start = buffer.position();
+        buffer.putInt(payloadLength);
+        buffer.putInt(0);
+        buffer.put(SAVE_RECORD);
+        buffer.putLong(task.id().getMostSignificantBits());
+        buffer.putLong(task.id().getLeastSignificantBits());
+        buffer.put((byte) (task.completed() ? 1 : 0));
+        buffer.putInt(description == null ? -1 : description.length);
+        if (description != null) {
+            buffer.put(description);
+        }
+        buffer.putInt(start + Integer.BYTES, checksum(buffer, start + HEADER_BYTES, payloadLength));
+        return buffer;
+    }
+
+    private static ByteBuffer encodeDelete(ByteBuffer writeBuffer, UUID taskId) {
+        final int payloadLength = 1 + Long.BYTES + Long.BYTES;
+        final ByteBuffer buffer = ensureCapacity(writeBuffer, HEADER_BYTES + payloadLength);
+        final int start = buffer.position();
+        buffer.putInt(payloadLength);
+        buffer.putInt(0);
+        buffer.put(DELETE_RECORD);
+        buffer.putLong(taskId.getMostSignificantBits());
+        buffer.putLong(taskId.getLeastSignificantBits());
+        buffer.putInt(start + Integer.BYTES, checksum(buffer, start + HEADER_BYTES, payloadLength));
+        return buffer;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int recordLength) {
+        if (buffer.remaining() >= recordLength) {
+            return buffer;
+        }
+        final ByteBuffer grown = ByteBuffer.allocateDirect(
+                Math.max(buffer.capacity() * 2, buffer.position() + recordLength));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Восстановление: файл читается через отображение в память окнами до 1 ГБ
+    private long replay(Path file, boolean tolerateTornTail) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            final List<Task> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+            long offset = 0;
+            MappedByteBuffer region = null;
+            long regionStart = 0;
+            while (offset + HEADER_BYTES <= fileSize) {
+                if (region == null || offset + HEADER_BYTES > regionStart + region.limit()) {
+                    regionStart = offset;
+                    region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart,
+                            Math.min(fileSize - regionStart, MAX_MAPPED_REGION));
+                }
+                final int payloadLength = region.getInt((int) (offset - regionStart));
+                final long recordEnd = offset + HEADER_BYTES + payloadLength;
+                if (payloadLength <= 0 || recordEnd > fileSize) {
+                    break;
+                }
+                if (recordEnd > regionStart + region.limit()) {
+                    regionStart = offset;
+                    region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart,
+                            Math.min(fileSize - regionStart, MAX_MAPPED_REGION));
+                }
+                final int recordStart = (int) (offset - regionStart);
+                final int expectedChecksum = region.getInt(recordStart + Integer.BYTES);
+                if (checksum(region, recordStart + HEADER_BYTES, payloadLength) != expectedChecksum) {
+                    break;
+                }
+                final int payloadStart = recordStart + HEADER_BYTES;
+                final byte type = region.get(payloadStart);
+                if (type == SAVE_RECORD) {
+                    batch.add(decode(region, payloadStart));
+                    if (batch.size() == REPLAY_BATCH_SIZE) {
+                        this.index.saveAll(batch);
+                        batch.clear();
+                    }
+                } else if (type == DELETE_RECORD) {
+                    // Удаление применяется после всех предшествующих ему сохранений
+                    this.index.saveAll(batch);
+                    batch.clear();
+                    final UUID taskId = new UUID(region.getLong(payloadStart + 1),
+                            region.getLong(payloadStart + 1 + Long.BYTES));
+                    this.index.findVersionedById(taskId)
+                            .ifPresent(versionedTask -> this.index.delete(taskId, versionedTask.version()));
+                } else {
+                    throw new IllegalStateException("Unknown task log record type " + type);
+                }
+                offset = recordEnd;
+            }
+            this.index.saveAll(batch);
+            if (offset != fileSize && !tolerateTornTail) {
+                throw new IllegalStateException("Corrupted task snapshot " + file + " at offset " + offset);
+            }
+            return offset;
+        }
+    }
+
+    private static Task decode(ByteBuffer buffer, int offset) {
+        final UUID id = new UUID(buffer.getLong(offset + 1), buffer.getLong(offset + 1 + Long.BYTES));
+        final boolean completed = buffer.get(offset + 1 + 2 * Long.BYTES) != 0;
+        final int descriptionLength = buffer.getInt(offset + 2 + 2 * Long.BYTES);
+        String description = null;
+        if (descriptionLength >= 0) {
+            final byte[] bytes = new byte[descriptionLength];
+            buffer.get(offset + 2 + 2 * Long.BYTES + Integer.BYTES, bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Task(id, description, completed);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    // Безусловное сохранение задач либо условная замена или удаление одной задачи
+    private record PendingWrite(List<Task> tasks,
+                                UUID taskId,
+                                long expectedVersion,
+                                boolean delete,
+                                CompletableFuture<Optional<VersionedTask>> done) {
+
+        static PendingWrite save(List<Task> tasks) {
+            return new PendingWrite(tasks, null, 0, false, new CompletableFuture<>());
+        }
+
+        static PendingWrite replace(Task task, long expectedVersion) {
+            return new PendingWrite(List.of(task), task.id(), expectedVersion, false, new CompletableFuture<>());
+        }
+
+        static PendingWrite delete(UUID taskId, long expectedVersion) {
+            return new PendingWrite(List.of(), taskId, expectedVersion, true, new CompletableFuture<>());
+        }
+
+        boolean conditional() {
+            return this.taskId != null;
+        }
+    }
+}
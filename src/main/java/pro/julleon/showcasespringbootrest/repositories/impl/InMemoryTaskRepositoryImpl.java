@@ -1,38 +1,298 @@
 package pro.julleon.showcasespringbootrest.repositories.impl;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
 import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Repository
+@Timed("tasks.repository")
+@ConditionalOnProperty(name = "tasks.repository.type", havingValue = "in-memory", matchIfMissing = true)
 public class InMemoryTaskRepositoryImpl implements TaskRepository {
 
-    private final List<Task> tasks = new LinkedList<>();
+    // Позиция вставки задачи по её идентификатору: O(1) поиск без полного перебора.
+    // Все изменения задачи выполняются внутри compute по её идентификатору и упорядочены блокировкой ячейки,
+    // поэтому удаление освобождает и идентификатор, и позицию: запоздавших записей той же задачи не бывает
+    private final Map<UUID, Long> positions = new ConcurrentHashMap<>();
+
+    // Задачи в порядке вставки; неблокирующая структура, чтение не ждёт запись
+    private final ConcurrentNavigableMap<Long, VersionedTask> tasks = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong sequence;
+
+    // null, если поисковый индекс выключен: поиск тогда перебирает все задачи
+    private final TaskSearchIndex searchIndex;
+
+    private final TaskStatusIndex statusIndex = new TaskStatusIndex();
+
+    private final AtomicLong taskVersions;
+
+    // Увеличивается только после того, как изменение стало видно читателям, поэтому
+    // прочитавший версию до данных никогда не получит данные старше этой версии
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    public InMemoryTaskRepositoryImpl(@Value("${tasks.search.enabled:false}") boolean searchEnabled) {
+        this(new AtomicLong(), new AtomicLong(), searchEnabled ? new TaskSearchIndex() : null);
+    }
+
+    // Шард общего хранилища: позиции, версии задач и поисковый индекс общие для всех шардов,
+    // поэтому порядок вставки и версии задач те же, что у одного хранилища
+    InMemoryTaskRepositoryImpl(AtomicLong sequence, AtomicLong taskVersions, TaskSearchIndex searchIndex) {
+        this.sequence = sequence;
+        this.taskVersions = taskVersions;
+        this.searchIndex = searchIndex;
+    }
 
     @Override
     public List<Task> findAll() {
-        return this.tasks;
+        final List<Task> all = new ArrayList<>(this.tasks.size());
+        for (VersionedTask versionedTask : this.tasks.values()) {
+            all.add(versionedTask.task());
+        }
+        return all;
+    }
+
+    @Override
+    public TaskPage findPage(long afterPosition, int limit) {
+        final List<Task> page = new ArrayList<>(limit);
+        final Iterator<Map.Entry<Long, VersionedTask>> iterator = this.tasks
+                .tailMap(afterPosition, false)
+                .entrySet()
+                .iterator();
+        long lastPosition = afterPosition;
+        while (page.size() < limit && iterator.hasNext()) {
+            final Map.Entry<Long, VersionedTask> entry = iterator.next();
+            page.add(entry.getValue().task());
+            lastPosition = entry.getKey();
+        }
+        return new TaskPage(page, iterator.hasNext()
+                ? OptionalLong.of(lastPosition)
+                : OptionalLong.empty());
+    }
+
+    @Override
+    public TaskPage findPage(long afterPosition, int limit, boolean completed) {
+        final List<Task> page = new ArrayList<>(Math.min(limit, this.statusIndex.count(completed)));
+        final Iterator<Long> iterator = this.statusIndex
+                .positions(completed)
+                .tailSet(afterPosition, false)
+                .iterator();
+        long lastPosition = afterPosition;
+        while (page.size() < limit && iterator.hasNext()) {
+            final long position = iterator.next();
+            // Индекс обновляется после данных и может ненадолго отставать от них
+            final VersionedTask versionedTask = this.tasks.get(position);
+            if (versionedTask != null && versionedTask.task().completed() == completed) {
+                page.add(versionedTask.task());
+            }
+            lastPosition = position;
+        }
+        return new TaskPage(page, iterator.hasNext()
+                ? OptionalLong.of(lastPosition)
+                : OptionalLong.empty());
+    }
+
+    // Задачи после заданной позиции вместе с их позициями, для слияния шардов в порядке вставки
+    TaskSlice slice(long afterPosition, int limit) {
+        final TaskSlice slice = new TaskSlice(Math.min(limit, this.tasks.size()));
+        final Iterator<Map.Entry<Long, VersionedTask>> iterator = this.tasks
+                .tailMap(afterPosition, false)
+                .entrySet()
+                .iterator();
+        while (slice.size() < limit && iterator.hasNext()) {
+            final Map.Entry<Long, VersionedTask> entry = iterator.next();
+            slice.add(entry.getKey(), entry.getValue().task());
+        }
+        return slice.more(iterator.hasNext());
+    }
+
+    TaskSlice slice(long afterPosition, int limit, boolean completed) {
+        final TaskSlice slice = new TaskSlice(Math.min(limit, this.statusIndex.count(completed)));
+        final Iterator<Long> iterator = this.statusIndex
+                .positions(completed)
+                .tailSet(afterPosition, false)
+                .iterator();
+        while (slice.size() < limit && iterator.hasNext()) {
+            final long position = iterator.next();
+            final VersionedTask versionedTask = this.tasks.get(position);
+            if (versionedTask != null && versionedTask.task().completed() == completed) {
+                slice.add(position, versionedTask.task());
+            }
+        }
+        return slice.more(iterator.hasNext());
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        return this.tasks.values().stream().map(VersionedTask::task);
     }
 
     @Override
     public void save(Task task) {
-        this.tasks.add(task);
+        this.positions.compute(task.id(), (id, position) -> {
+            final long taskPosition = position == null ? this.sequence.incrementAndGet() : position;
+            apply(taskPosition, new VersionedTask(task, this.taskVersions.incrementAndGet()));
+            return taskPosition;
+        });
+        this.version.incrementAndGet();
+    }
+
+    @Override
+    public void saveAll(Collection<Task> tasks) {
+        // Резервирование блока позиций одной атомарной операцией на весь пакет
+        long position = this.sequence.getAndAdd(tasks.size());
+        long taskVersion = this.taskVersions.getAndAdd(tasks.size());
+        for (Task task : tasks) {
+            store(task, ++position, ++taskVersion);
+        }
+        this.version.incrementAndGet();
+    }
+
+    // Пакет с уже зарезервированными позициями и версиями: шардированное хранилище резервирует их
+    // на весь пакет сразу, версия задачи отстоит от её позиции на versionOffset
+    void saveAll(TaskSlice batch, long versionOffset) {
+        for (int i = 0; i < batch.size(); i++) {
+            store(batch.task(i), batch.position(i), batch.position(i) + versionOffset);
+        }
+        this.version.incrementAndGet();
+    }
+
+    // Сравнение версии и замена под блокировкой ячейки идентификатора; задачи с другими идентификаторами не ждут
+    @Override
+    public Optional<VersionedTask> replace(Task task, long expectedVersion) {
+        final VersionedTask[] replacement = new VersionedTask[1];
+        this.positions.computeIfPresent(task.id(), (id, position) -> {
+            final VersionedTask current = this.tasks.get(position);
+            if (current != null && current.version() == expectedVersion) {
+                replacement[0] = new VersionedTask(task, this.taskVersions.incrementAndGet());
+                apply(position, replacement[0]);
+            }
+            return position;
+        });
+        if (replacement[0] == null) {
+            return Optional.empty();
+        }
+        this.version.incrementAndGet();
+        return Optional.of(replacement[0]);
+    }
+
+    @Override
+    public boolean delete(UUID taskId, long expectedVersion) {
+        final boolean[] deleted = new boolean[1];
+        this.positions.computeIfPresent(taskId, (id, position) -> {
+            final VersionedTask current = this.tasks.get(position);
+            if (current == null || current.version() != expectedVersion) {
+                return position;
+            }
+            this.tasks.remove(position);
+            if (this.searchIndex != null) {
+                this.searchIndex.remove(id, current.version());
+            }
+            this.statusIndex.remove(position, current.task().completed());
+            deleted[0] = true;
+            return null;
+        });
+        if (!deleted[0]) {
+            return false;
+        }
+        this.version.incrementAndGet();
+        return true;
     }
 
     @Override
     public Optional<Task> findById(UUID taskId) {
-        return this.tasks
-                .stream()
-                .filter(task -> taskId.equals(task.id()))
-                .findFirst();
+        return findVersionedById(taskId).map(VersionedTask::task);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        if (this.searchIndex == null) {
+            return TaskSearchIndex.scan(findAll(), query, limit);
+        }
+        final List<Task> found = new ArrayList<>();
+        for (UUID taskId : this.searchIndex.search(query, limit)) {
+            findById(taskId).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public Optional<VersionedTask> findVersionedById(UUID taskId) {
+        final Long position = this.positions.get(taskId);
+        return position == null
+                ? Optional.empty()
+                : Optional.ofNullable(this.tasks.get(position));
+    }
+
+    @Override
+    public long version() {
+        return this.version.get();
+    }
+
+    @Override
+    public int size() {
+        return this.tasks.size();
+    }
+
+    @Override
+    public int count(boolean completed) {
+        return this.statusIndex.count(completed);
+    }
+
+    // Число идентификаторов с закреплённой позицией: после удалений совпадает с size()
+    int trackedIds() {
+        return this.positions.size();
+    }
+
+    public void clear() {
+        this.positions.clear();
+        this.tasks.clear();
+        if (this.searchIndex != null) {
+            this.searchIndex.clear();
+        }
+        this.statusIndex.clear();
+        this.version.incrementAndGet();
+    }
+
+    private void store(Task task, long candidatePosition, long taskVersion) {
+        this.positions.compute(task.id(), (id, position) -> {
+            final long taskPosition = position == null ? candidatePosition : position;
+            apply(taskPosition, new VersionedTask(task, taskVersion));
+            return taskPosition;
+        });
     }
 
-    public List<Task> getTasks() {
-        return tasks;
+    // Вызывается под блокировкой ячейки идентификатора задачи
+    private void apply(long position, VersionedTask versionedTask) {
+        final Task task = versionedTask.task();
+        final VersionedTask previous = this.tasks.put(position, versionedTask);
+        if (this.searchIndex != null) {
+            this.searchIndex.index(task.id(), versionedTask.version(), task.description());
+        }
+        if (previous == null) {
+            this.statusIndex.add(position, task.completed());
+        } else if (previous.task().completed() != task.completed()) {
+            this.statusIndex.move(position, task.completed());
+        }
     }
 }
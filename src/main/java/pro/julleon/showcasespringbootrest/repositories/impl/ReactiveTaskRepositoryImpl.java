@@ -0,0 +1,44 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.springframework.stereotype.Repository;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.ReactiveTaskRepository;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+
+@Repository
+public class ReactiveTaskRepositoryImpl implements ReactiveTaskRepository {
+
+    private final TaskRepository taskRepository;
+
+    // Запись может ждать фиксации журнала на диске, поэтому выполняется вне потоков подписчика
+    private final Scheduler writeScheduler = Schedulers.boundedElastic();
+
+    public ReactiveTaskRepositoryImpl(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public Flux<Task> findAll() {
+        // Задачи извлекаются из хранилища по мере запроса подписчика, без промежуточного списка
+        return Flux.fromStream(this.taskRepository::streamAll);
+    }
+
+    @Override
+    public Mono<Task> save(Task task) {
+        return Mono.fromRunnable(() -> this.taskRepository.save(task))
+                .subscribeOn(this.writeScheduler)
+                .thenReturn(task);
+    }
+
+    @Override
+    public Mono<Task> findById(UUID taskId) {
+        return Mono.fromSupplier(() -> this.taskRepository.findById(taskId))
+                .flatMap(Mono::justOrEmpty);
+    }
+}
@@ -0,0 +1,296 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Задачи разбиты по хешу идентификатора на независимые in-memory шарды: запись и чтение по идентификатору
+// затрагивают один шард, а обход всех задач идёт по шардам параллельно в общем пуле fork-join
+// со слиянием результатов по позиции. Позиции и версии задач выдаются общими счётчиками, поэтому порядок
+// вставки, курсоры страниц и ETag те же, что у одного in-memory хранилища
+@Repository
+@Timed("tasks.repository")
+@ConditionalOnProperty(name = "tasks.repository.type", havingValue = "sharded")
+public class ShardedTaskRepositoryImpl implements TaskRepository {
+
+    // Меньшие обходы дешевле выполнить последовательно, чем раздать задачи пула
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final int STREAM_PAGE_SIZE = 1024;
+
+    private final InMemoryTaskRepositoryImpl[] shards;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicLong taskVersions = new AtomicLong();
+
+    // Общий для всех шардов: релевантность зависит от частоты слова во всём хранилище; null, если выключен
+    private final TaskSearchIndex searchIndex;
+
+    public ShardedTaskRepositoryImpl(@Value("${tasks.repository.sharded.shards:16}") int shardCount,
+                                     @Value("${tasks.search.enabled:false}") boolean searchEnabled) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.searchIndex = searchEnabled ? new TaskSearchIndex() : null;
+        this.shards = new InMemoryTaskRepositoryImpl[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new InMemoryTaskRepositoryImpl(this.sequence, this.taskVersions, this.searchIndex);
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return merge(fanOut(parallel(size()),
+                shard -> shard.slice(0, Integer.MAX_VALUE)), 0, Integer.MAX_VALUE).tasks();
+    }
+
+    // Каждый шард отдаёт не больше limit задач, из их слияния берутся первые limit
+    @Override
+    public TaskPage findPage(long afterPosition, int limit) {
+        return merge(fanOut(parallel(Math.min(limit, size())),
+                shard -> shard.slice(afterPosition, limit)), afterPosition, limit);
+    }
+
+    @Override
+    public TaskPage findPage(long afterPosition, int limit, boolean completed) {
+        return merge(fanOut(parallel(Math.min(limit, count(completed))),
+                shard -> shard.slice(afterPosition, limit, completed)), afterPosition, limit);
+    }
+
+    // Лениво по страницам, чтобы не собирать всё хранилище в памяти ради потока
+    @Override
+    public Stream<Task> streamAll() {
+        return Stream.iterate(findPage(0, STREAM_PAGE_SIZE),
+                        Objects::nonNull,
+                        page -> page.nextPosition().isPresent()
+                                ? findPage(page.nextPosition().getAsLong(), STREAM_PAGE_SIZE)
+                                : null)
+                .flatMap(page -> page.tasks().stream());
+    }
+
+    @Override
+    public void save(Task task) {
+        shard(task.id()).save(task);
+    }
+
+    // Один блок позиций и версий на весь пакет: задачи пакета остаются в исходном порядке и после разбиения по шардам
+    @Override
+    public void saveAll(Collection<Task> tasks) {
+        long position = this.sequence.getAndAdd(tasks.size());
+        final long versionOffset = this.taskVersions.getAndAdd(tasks.size()) - position;
+        final TaskSlice[] batches = new TaskSlice[this.shards.length];
+        for (Task task : tasks) {
+            final int shard = shardIndex(task.id());
+            if (batches[shard] == null) {
+                batches[shard] = new TaskSlice(tasks.size() / this.shards.length + 1);
+            }
+            batches[shard].add(++position, task);
+        }
+        final IntStream shards = IntStream.range(0, this.shards.length);
+        (parallel(tasks.size()) ? shards.parallel() : shards)
+                .filter(shard -> batches[shard] != null)
+                .forEach(shard -> this.shards[shard].saveAll(batches[shard], versionOffset));
+    }
+
+    @Override
+    public Optional<VersionedTask> replace(Task task, long expectedVersion) {
+        return shard(task.id()).replace(task, expectedVersion);
+    }
+
+    @Override
+    public boolean delete(UUID taskId, long expectedVersion) {
+        return shard(taskId).delete(taskId, expectedVersion);
+    }
+
+    @Override
+    public Optional<Task> findById(UUID taskId) {
+        return shard(taskId).findById(taskId);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        if (this.searchIndex == null) {
+            return TaskSearchIndex.scan(findAll(), query, limit);
+        }
+        final List<Task> found = new ArrayList<>();
+        for (UUID taskId : this.searchIndex.search(query, limit)) {
+            findById(taskId).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public Optional<VersionedTask> findVersionedById(UUID taskId) {
+        return shard(taskId).findVersionedById(taskId);
+    }
+
+    // Версии шардов только растут, поэтому их сумма меняется после каждого изменения любого шарда
+    @Override
+    public long version() {
+        long version = 0;
+        for (InMemoryTaskRepositoryImpl shard : this.shards) {
+            version += shard.version();
+        }
+        return version;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (InMemoryTaskRepositoryImpl shard : this.shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public int count(boolean completed) {
+        int count = 0;
+        for (InMemoryTaskRepositoryImpl shard : this.shards) {
+            count += shard.count(completed);
+        }
+        return count;
+    }
+
+    public void clear() {
+        for (InMemoryTaskRepositoryImpl shard : this.shards) {
+            shard.clear();
+        }
+    }
+
+    private InMemoryTaskRepositoryImpl shard(UUID taskId) {
+        return this.shards[shardIndex(taskId)];
+    }
+
+    // Старшие биты хеша подмешиваются к младшим: у идентификаторов с меткой времени различаются не все биты
+    private int shardIndex(UUID taskId) {
+        final int hash = taskId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), this.shards.length);
+    }
+
+    // На одном ядре общий пул не даёт параллелизма, и раздача шардов по его задачам только добавляет накладные расходы
+    private static boolean parallel(int work) {
+        return work >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    private TaskSlice[] fanOut(boolean parallel, Function<InMemoryTaskRepositoryImpl, TaskSlice> query) {
+        final TaskSlice[] slices = new TaskSlice[this.shards.length];
+        final IntStream shards = IntStream.range(0, this.shards.length);
+        (parallel ? shards.parallel() : shards).forEach(shard -> slices[shard] = query.apply(this.shards[shard]));
+        return slices;
+    }
+
+    // Слияние срезов по позиции через двоичную кучу номеров срезов; ключ среза — позиция его текущей задачи
+    private static TaskPage merge(TaskSlice[] slices, long afterPosition, int limit) {
+        int total = 0;
+        boolean more = false;
+        for (TaskSlice slice : slices) {
+            total += slice.size();
+            more |= slice.more();
+        }
+        if (total > 0 && total <= limit && !more) {
+            final List<Task> merged = mergeByPosition(slices, total);
+            if (merged != null) {
+                return new TaskPage(merged, OptionalLong.empty());
+            }
+        }
+        final List<Task> merged = new ArrayList<>(Math.min(total, limit));
+        final int[] cursors = new int[slices.length];
+        final int[] heap = new int[slices.length];
+        int heapSize = 0;
+        for (int i = 0; i < slices.length; i++) {
+            if (slices[i].size() > 0) {
+                heap[heapSize++] = i;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, slices, cursors);
+        }
+        long lastPosition = afterPosition;
+        while (merged.size() < limit && heapSize > 0) {
+            final int top = heap[0];
+            final int cursor = cursors[top]++;
+            merged.add(slices[top].task(cursor));
+            lastPosition = slices[top].position(cursor);
+            if (cursors[top] == slices[top].size()) {
+                heap[0] = heap[--heapSize];
+            }
+            if (heapSize > 0) {
+                siftDown(heap, heapSize, 0, slices, cursors);
+            }
+        }
+        return new TaskPage(merged, more || heapSize > 0
+                ? OptionalLong.of(lastPosition)
+                : OptionalLong.empty());
+    }
+
+    // Срезы берутся целиком, а позиции почти без пропусков: задачи раскладываются по индексу позиции
+    // без сравнений, затем массив уплотняется на месте; при редких позициях — null
+    private static List<Task> mergeByPosition(TaskSlice[] slices, int total) {
+        long minPosition = Long.MAX_VALUE;
+        long maxPosition = Long.MIN_VALUE;
+        for (TaskSlice slice : slices) {
+            if (slice.size() > 0) {
+                minPosition = Math.min(minPosition, slice.position(0));
+                maxPosition = Math.max(maxPosition, slice.position(slice.size() - 1));
+            }
+        }
+        if (maxPosition - minPosition >= 2L * total) {
+            return null;
+        }
+        final Task[] byPosition = new Task[(int) (maxPosition - minPosition + 1)];
+        for (TaskSlice slice : slices) {
+            for (int i = 0; i < slice.size(); i++) {
+                byPosition[(int) (slice.position(i) - minPosition)] = slice.task(i);
+            }
+        }
+        int size = 0;
+        for (Task task : byPosition) {
+            if (task != null) {
+                byPosition[size++] = task;
+            }
+        }
+        return Arrays.asList(byPosition).subList(0, size);
+    }
+
+    private static void siftDown(int[] heap, int heapSize, int index, TaskSlice[] slices, int[] cursors) {
+        final int slice = heap[index];
+        final long position = head(slice, slices, cursors);
+        while (2 * index + 1 < heapSize) {
+            int child = 2 * index + 1;
+            if (child + 1 < heapSize && head(heap[child + 1], slices, cursors) < head(heap[child], slices, cursors)) {
+                child++;
+            }
+            if (head(heap[child], slices, cursors) >= position) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slice;
+    }
+
+    private static long head(int slice, TaskSlice[] slices, int[] cursors) {
+        return slices[slice].position(cursors[slice]);
+    }
+}
@@ -0,0 +1,244 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+
+// Инвертированный индекс компактного хранилища: списки задач терма — отсортированные номера слотов в int[],
+// термы задачи отдельно не хранятся и при замене или удалении берутся из её прежнего описания.
+// Релевантность та же, что у TaskSearchIndex. Не потокобезопасен: вызывается под блокировкой хранилища
+final class SlotSearchIndex {
+
+    private static final int INITIAL_POSTING_CAPACITY = 4;
+
+    private static final Comparator<ScoredSlot> RELEVANCE = Comparator
+            .comparingDouble(ScoredSlot::score)
+            .thenComparingLong(ScoredSlot::version);
+
+    private final TreeMap<String, Posting> postings = new TreeMap<>();
+
+    private record ScoredSlot(int slot, double score, long version) {
+    }
+
+    // Удалённый слот помечается как ~slot на своём месте и вычищается, когда пометок становится больше живых слотов
+    private static final class Posting {
+
+        private int[] slots = new int[INITIAL_POSTING_CAPACITY];
+
+        private int size;
+
+        private int live;
+
+        void add(int slot) {
+            final int index = indexOf(slot);
+            if (index >= 0) {
+                if (this.slots[index] < 0) {
+                    this.slots[index] = slot;
+                    this.live++;
+                }
+                return;
+            }
+            final int insertion = -index - 1;
+            if (this.size == this.slots.length) {
+                this.slots = Arrays.copyOf(this.slots, this.size * 2);
+            }
+            // Новые слоты выдаются по возрастанию, поэтому обычно это добавление в конец
+            System.arraycopy(this.slots, insertion, this.slots, insertion + 1, this.size - insertion);
+            this.slots[insertion] = slot;
+            this.size++;
+            this.live++;
+        }
+
+        void remove(int slot) {
+            final int index = indexOf(slot);
+            if (index < 0 || this.slots[index] < 0) {
+                return;
+            }
+            this.slots[index] = ~slot;
+            this.live--;
+            if (2 * this.live < this.size) {
+                int size = 0;
+                for (int i = 0; i < this.size; i++) {
+                    if (this.slots[i] >= 0) {
+                        this.slots[size++] = this.slots[i];
+                    }
+                }
+                this.size = size;
+                if (this.slots.length > INITIAL_POSTING_CAPACITY && 4 * size < this.slots.length) {
+                    this.slots = Arrays.copyOf(this.slots, Math.max(INITIAL_POSTING_CAPACITY, 2 * size));
+                }
+            }
+        }
+
+        // Новые номера слотов возрастают вместе со старыми, поэтому список остаётся отсортированным
+        void renumber(int[] newSlots) {
+            int size = 0;
+            for (int i = 0; i < this.size; i++) {
+                if (this.slots[i] >= 0) {
+                    this.slots[size++] = newSlots[this.slots[i]];
+                }
+            }
+            this.size = size;
+        }
+
+        // Двоичный поиск по номеру слота без учёта пометки удаления
+        private int indexOf(int slot) {
+            int low = 0;
+            int high = this.size - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int middleSlot = this.slots[middle] < 0 ? ~this.slots[middle] : this.slots[middle];
+                if (middleSlot < slot) {
+                    low = middle + 1;
+                } else if (middleSlot > slot) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    // Слот переходит от прежнего описания к новому; null — задачи в слоте не было или она удалена
+    void index(int slot, String oldDescription, String newDescription) {
+        final String[] oldTerms = TaskSearchIndex.tokenize(oldDescription);
+        final String[] newTerms = TaskSearchIndex.tokenize(newDescription);
+        for (String term : oldTerms) {
+            if (Arrays.binarySearch(newTerms, term) < 0) {
+                remove(term, slot);
+            }
+        }
+        for (String term : newTerms) {
+            if (Arrays.binarySearch(oldTerms, term) < 0) {
+                this.postings.computeIfAbsent(term, key -> new Posting()).add(slot);
+            }
+        }
+    }
+
+    // После уплотнения хранилища: newSlots[slot] — новый номер живого слота
+    void renumber(int[] newSlots) {
+        for (Iterator<Posting> postings = this.postings.values().iterator(); postings.hasNext(); ) {
+            final Posting posting = postings.next();
+            posting.renumber(newSlots);
+            if (posting.size == 0) {
+                postings.remove();
+            }
+        }
+    }
+
+    void remove(int slot, String description) {
+        for (String term : TaskSearchIndex.tokenize(description)) {
+            remove(term, slot);
+        }
+    }
+
+    // Номера слотов по убыванию релевантности; при равной релевантности выше слот с большей версией
+    int[] search(String query, int limit, int taskCount, IntToLongFunction versions, IntFunction<String> descriptions) {
+        final String[] queryTerms = TaskSearchIndex.tokenize(query);
+        if (queryTerms.length == 0) {
+            return new int[0];
+        }
+
+        // Кандидаты берутся по самому редкому терму запроса, остальные проверяются по описанию задачи
+        final double[] idfs = new double[queryTerms.length];
+        int rarest = 0;
+        long rarestCount = Long.MAX_VALUE;
+        for (int i = 0; i < queryTerms.length; i++) {
+            long count = 0;
+            for (Posting posting : termsWithPrefix(queryTerms[i]).values()) {
+                count += posting.live;
+            }
+            if (count == 0) {
+                return new int[0];
+            }
+            if (count < rarestCount) {
+                rarest = i;
+                rarestCount = count;
+            }
+            idfs[i] = Math.log(1 + (double) taskCount / count);
+        }
+
+        // Термы с префиксом перебираются от точного совпадения к более длинным дополнениям,
+        // поэтому первый встреченный терм слота даёт его лучший вес по самому редкому терму запроса
+        final String rarestTerm = queryTerms[rarest];
+        final List<Map.Entry<String, Posting>> matchingTerms = termsWithPrefix(rarestTerm).entrySet().stream()
+                .sorted(Comparator.comparingInt(entry -> entry.getKey().length()))
+                .toList();
+        final BitSet seen = new BitSet();
+        final PriorityQueue<ScoredSlot> top = new PriorityQueue<>(limit + 1, RELEVANCE);
+        for (Map.Entry<String, Posting> matchingTerm : matchingTerms) {
+            final double rarestMatch = matchingTerm.getKey().length() == rarestTerm.length()
+                    ? 1
+                    : TaskSearchIndex.PREFIX_MATCH_WEIGHT * rarestTerm.length() / matchingTerm.getKey().length();
+            final Posting posting = matchingTerm.getValue();
+            for (int i = 0; i < posting.size; i++) {
+                final int slot = posting.slots[i];
+                if (slot < 0 || seen.get(slot)) {
+                    continue;
+                }
+                seen.set(slot);
+                final double score = score(queryTerms, idfs, rarest, rarestMatch, slot, descriptions);
+                final long version = versions.applyAsLong(slot);
+                if (score > 0 && (top.size() < limit || beats(score, version, top.peek()))) {
+                    top.add(new ScoredSlot(slot, score, version));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        }
+
+        final int[] result = new int[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = top.poll().slot();
+        }
+        return result;
+    }
+
+    private static double score(String[] queryTerms, double[] idfs, int rarest, double rarestMatch, int slot,
+                                IntFunction<String> descriptions) {
+        double score = idfs[rarest] * rarestMatch;
+        if (queryTerms.length == 1) {
+            return score;
+        }
+        final String[] taskTerms = TaskSearchIndex.tokenize(descriptions.apply(slot));
+        for (int i = 0; i < queryTerms.length; i++) {
+            if (i == rarest) {
+                continue;
+            }
+            final double match = TaskSearchIndex.bestMatch(queryTerms[i], taskTerms);
+            if (match == 0) {
+                return 0;
+            }
+            score += idfs[i] * match;
+        }
+        return score;
+    }
+
+    private void remove(String term, int slot) {
+        final Posting posting = this.postings.get(term);
+        if (posting != null) {
+            posting.remove(slot);
+            if (posting.live == 0) {
+                this.postings.remove(term);
+            }
+        }
+    }
+
+    private NavigableMap<String, Posting> termsWithPrefix(String prefix) {
+        return this.postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean beats(double score, long version, ScoredSlot weakest) {
+        return score > weakest.score() || score == weakest.score() && version > weakest.version();
+    }
+}
@@ -0,0 +1,294 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Инвертированный индекс описаний задач: термы в нижнем регистре, поиск по префиксу,
+// все термы запроса обязательны, релевантность — сумма idf термов запроса с учётом точности совпадения.
+// Индекс занимает в куче сотни байт на задачу, поэтому включается свойством tasks.search.enabled;
+// без него хранилища ищут полным перебором через scan с той же релевантностью
+final class TaskSearchIndex {
+
+    private static final String[] NO_TERMS = new String[0];
+
+    // Совпадение по префиксу весит меньше точного и тем меньше, чем длиннее дополнение
+    static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    private static final Comparator<ScoredTask> RELEVANCE = Comparator
+            .comparingDouble(ScoredTask::score)
+            .thenComparingLong(ScoredTask::version);
+
+    // Изменения одного терма упорядочены блокировкой ячейки в compute
+    private final ConcurrentHashMap<String, Posting> postings = new ConcurrentHashMap<>();
+
+    // Отсортированные термы для поиска по префиксу; меняются только внутри compute по postings
+    private final ConcurrentSkipListSet<String> terms = new ConcurrentSkipListSet<>();
+
+    private final ConcurrentHashMap<UUID, IndexedTask> tasks = new ConcurrentHashMap<>();
+
+    private record IndexedTask(long version, String[] terms) {
+    }
+
+    // Экземпляр терма хранится один раз и разделяется всеми задачами, в которых он встречается
+    private record Posting(String term, Set<UUID> taskIds) {
+    }
+
+    private record ScoredTask(UUID taskId, double score, long version) {
+    }
+
+    void index(UUID taskId, long version, String description) {
+        final String[] newTerms = tokenize(description);
+        this.tasks.compute(taskId, (id, indexed) -> {
+            // Более старое сохранение могло дойти до индекса позже более нового
+            if (indexed != null && indexed.version() > version) {
+                return indexed;
+            }
+            final String[] oldTerms = indexed == null ? NO_TERMS : indexed.terms();
+            for (String term : oldTerms) {
+                if (Arrays.binarySearch(newTerms, term) < 0) {
+                    removePosting(term, id);
+                }
+            }
+            for (int i = 0; i < newTerms.length; i++) {
+                final int oldIndex = Arrays.binarySearch(oldTerms, newTerms[i]);
+                newTerms[i] = oldIndex >= 0 ? oldTerms[oldIndex] : addPosting(newTerms[i], id);
+            }
+            return new IndexedTask(version, newTerms);
+        });
+    }
+
+    void remove(UUID taskId, long version) {
+        this.tasks.computeIfPresent(taskId, (id, indexed) -> {
+            if (indexed.version() > version) {
+                return indexed;
+            }
+            for (String term : indexed.terms()) {
+                removePosting(term, id);
+            }
+            return null;
+        });
+    }
+
+    List<UUID> search(String query, int limit) {
+        final String[] queryTerms = tokenize(query);
+        if (queryTerms.length == 0) {
+            return List.of();
+        }
+
+        // Кандидаты берутся по самому редкому терму запроса, остальные проверяются по термам задачи
+        final double taskCount = this.tasks.size();
+        final double[] idfs = new double[queryTerms.length];
+        String rarestTerm = queryTerms[0];
+        long rarestCount = Long.MAX_VALUE;
+        for (int i = 0; i < queryTerms.length; i++) {
+            final long count = countMatches(queryTerms[i]);
+            if (count == 0) {
+                return List.of();
+            }
+            if (count < rarestCount) {
+                rarestTerm = queryTerms[i];
+                rarestCount = count;
+            }
+            idfs[i] = Math.log(1 + taskCount / count);
+        }
+
+        final PriorityQueue<ScoredTask> top = new PriorityQueue<>(limit + 1, RELEVANCE);
+        for (UUID taskId : candidates(rarestTerm)) {
+            final IndexedTask indexed = this.tasks.get(taskId);
+            if (indexed == null) {
+                continue;
+            }
+            double score = 0;
+            for (int i = 0; i < queryTerms.length; i++) {
+                final double match = bestMatch(queryTerms[i], indexed.terms());
+                if (match == 0) {
+                    score = 0;
+                    break;
+                }
+                score += idfs[i] * match;
+            }
+            if (score > 0 && (top.size() < limit || beats(score, indexed.version(), top.peek()))) {
+                top.add(new ScoredTask(taskId, score, indexed.version()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        final UUID[] result = new UUID[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = top.poll().taskId();
+        }
+        return Arrays.asList(result);
+    }
+
+    // Поиск без индекса за один обход: задачи, совпавшие со всеми термами, запоминаются вместе с весами
+    // совпадений, а idf считается после обхода; при равной релевантности выше задача, встреченная позже
+    static List<Task> scan(Iterable<Task> tasks, String query, int limit) {
+        final String[] queryTerms = tokenize(query);
+        if (queryTerms.length == 0) {
+            return List.of();
+        }
+        final long[] counts = new long[queryTerms.length];
+        final List<Task> matched = new ArrayList<>();
+        final List<double[]> matchWeights = new ArrayList<>();
+        long taskCount = 0;
+        for (Task task : tasks) {
+            taskCount++;
+            final String[] terms = tokenize(task.description());
+            final double[] weights = new double[queryTerms.length];
+            boolean all = true;
+            for (int i = 0; i < queryTerms.length; i++) {
+                weights[i] = bestMatch(queryTerms[i], terms);
+                if (weights[i] > 0) {
+                    counts[i]++;
+                } else {
+                    all = false;
+                }
+            }
+            if (all) {
+                matched.add(task);
+                matchWeights.add(weights);
+            }
+        }
+
+        final PriorityQueue<ScoredTask> top = new PriorityQueue<>(limit + 1, RELEVANCE);
+        for (int index = 0; index < matched.size(); index++) {
+            double score = 0;
+            for (int i = 0; i < queryTerms.length; i++) {
+                score += Math.log(1 + (double) taskCount / counts[i]) * matchWeights.get(index)[i];
+            }
+            if (top.size() < limit || beats(score, index, top.peek())) {
+                top.add(new ScoredTask(null, score, index));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        final Task[] result = new Task[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = matched.get((int) top.poll().version());
+        }
+        return Arrays.asList(result);
+    }
+
+    void clear() {
+        this.tasks.clear();
+        this.postings.clear();
+        this.terms.clear();
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return NO_TERMS;
+        }
+        final String folded = text.toLowerCase(Locale.ROOT);
+        final TreeSet<String> tokens = new TreeSet<>();
+        int start = -1;
+        for (int i = 0; i < folded.length(); ) {
+            final int codePoint = folded.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (start >= 0) {
+            tokens.add(folded.substring(start));
+        }
+        return tokens.toArray(NO_TERMS);
+    }
+
+    private String addPosting(String term, UUID taskId) {
+        return this.postings.compute(term, (key, posting) -> {
+            if (posting == null) {
+                posting = new Posting(key, ConcurrentHashMap.newKeySet());
+                this.terms.add(key);
+            }
+            posting.taskIds().add(taskId);
+            return posting;
+        }).term();
+    }
+
+    private void removePosting(String term, UUID taskId) {
+        this.postings.computeIfPresent(term, (key, posting) -> {
+            posting.taskIds().remove(taskId);
+            if (posting.taskIds().isEmpty()) {
+                this.terms.remove(key);
+                return null;
+            }
+            return posting;
+        });
+    }
+
+    private Set<UUID> taskIds(String term) {
+        final Posting posting = this.postings.get(term);
+        return posting == null ? Set.of() : posting.taskIds();
+    }
+
+    private NavigableSet<String> termsWithPrefix(String prefix) {
+        return this.terms.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private long countMatches(String queryTerm) {
+        long count = 0;
+        for (String term : termsWithPrefix(queryTerm)) {
+            count += taskIds(term).size();
+        }
+        return count;
+    }
+
+    private Collection<UUID> candidates(String queryTerm) {
+        final Iterator<String> matchingTerms = termsWithPrefix(queryTerm).iterator();
+        if (!matchingTerms.hasNext()) {
+            return List.of();
+        }
+        // Единственный терм — его список задач перебирается без копирования
+        final Set<UUID> firstTaskIds = taskIds(matchingTerms.next());
+        if (!matchingTerms.hasNext()) {
+            return firstTaskIds;
+        }
+        final Set<UUID> taskIds = new HashSet<>(firstTaskIds);
+        while (matchingTerms.hasNext()) {
+            taskIds.addAll(taskIds(matchingTerms.next()));
+        }
+        return taskIds;
+    }
+
+    private static boolean beats(double score, long version, ScoredTask weakest) {
+        return score > weakest.score() || score == weakest.score() && version > weakest.version();
+    }
+
+    // 1 за точное совпадение, меньше — за самое короткое дополнение префикса, 0 — если совпадений нет
+    static double bestMatch(String queryTerm, String[] taskTerms) {
+        final int index = Arrays.binarySearch(taskTerms, queryTerm);
+        if (index >= 0) {
+            return 1;
+        }
+        double best = 0;
+        for (int i = -index - 1; i < taskTerms.length && taskTerms[i].startsWith(queryTerm); i++) {
+            best = Math.max(best, PREFIX_MATCH_WEIGHT * queryTerm.length() / taskTerms[i].length());
+        }
+        return best;
+    }
+}
@@ -0,0 +1,54 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.Arrays;
+
+// Задачи одного шарда вместе с их позициями в порядке возрастания позиций: результат обхода шарда
+// для слияния или пакет на сохранение с заранее зарезервированными позициями
+final class TaskSlice {
+
+    private long[] positions;
+
+    private Task[] tasks;
+
+    private int size;
+
+    // В шарде остались задачи после последней задачи среза
+    private boolean more;
+
+    TaskSlice(int capacity) {
+        this.positions = new long[Math.max(capacity, 1)];
+        this.tasks = new Task[this.positions.length];
+    }
+
+    void add(long position, Task task) {
+        if (this.size == this.positions.length) {
+            this.positions = Arrays.copyOf(this.positions, this.size * 2);
+            this.tasks = Arrays.copyOf(this.tasks, this.size * 2);
+        }
+        this.positions[this.size] = position;
+        this.tasks[this.size++] = task;
+    }
+
+    TaskSlice more(boolean more) {
+        this.more = more;
+        return this;
+    }
+
+    boolean more() {
+        return this.more;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    long position(int index) {
+        return this.positions[index];
+    }
+
+    Task task(int index) {
+        return this.tasks[index];
+    }
+}
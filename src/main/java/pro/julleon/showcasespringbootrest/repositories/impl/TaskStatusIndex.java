@@ -0,0 +1,54 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Позиции задач, разложенные по признаку выполнения, и счётчики задач каждого вида.
+// Изменения одной позиции упорядочивает хранилище, поэтому индекс не хранит ни версий, ни удалённых позиций
+final class TaskStatusIndex {
+
+    private final ConcurrentSkipListSet<Long> openPositions = new ConcurrentSkipListSet<>();
+
+    private final ConcurrentSkipListSet<Long> completedPositions = new ConcurrentSkipListSet<>();
+
+    // Размер ConcurrentSkipListSet вычисляется обходом, поэтому счётчики ведутся отдельно
+    private final AtomicInteger openCount = new AtomicInteger();
+
+    private final AtomicInteger completedCount = new AtomicInteger();
+
+    void add(long position, boolean completed) {
+        positions(completed).add(position);
+        counter(completed).incrementAndGet();
+    }
+
+    void remove(long position, boolean completed) {
+        positions(completed).remove(position);
+        counter(completed).decrementAndGet();
+    }
+
+    // Позиция сначала появляется в новом виде и только потом пропадает из прежнего
+    void move(long position, boolean completed) {
+        add(position, completed);
+        remove(position, !completed);
+    }
+
+    NavigableSet<Long> positions(boolean completed) {
+        return completed ? this.completedPositions : this.openPositions;
+    }
+
+    int count(boolean completed) {
+        return (completed ? this.completedCount : this.openCount).get();
+    }
+
+    void clear() {
+        this.openPositions.clear();
+        this.completedPositions.clear();
+        this.openCount.set(0);
+        this.completedCount.set(0);
+    }
+
+    private AtomicInteger counter(boolean completed) {
+        return completed ? this.completedCount : this.openCount;
+    }
+}
@@ -0,0 +1,34 @@
+package pro.julleon.showcasespringbootrest.validation;
+
+public enum TaskErrorCode {
+
+    DESCRIPTION_NOT_SET("tasks.create.description.errors.not_set"),
+
+    DESCRIPTION_TOO_LONG("tasks.create.description.errors.too_long"),
+
+    PAGE_LIMIT_OUT_OF_RANGE("tasks.list.limit.errors.out_of_range"),
+
+    PAGE_CURSOR_INVALID("tasks.list.cursor.errors.invalid"),
+
+    BATCH_SIZE_OUT_OF_RANGE("tasks.batch.errors.size_out_of_range"),
+
+    BATCH_ITEM_MALFORMED("tasks.batch.errors.malformed"),
+
+    SEARCH_QUERY_NOT_SET("tasks.search.query.errors.not_set"),
+
+    PRECONDITION_FAILED("tasks.update.errors.precondition_failed"),
+
+    RATE_LIMITED("tasks.create.errors.rate_limited"),
+
+    STORE_FULL("tasks.create.errors.store_full");
+
+    private final String messageCode;
+
+    TaskErrorCode(String messageCode) {
+        this.messageCode = messageCode;
+    }
+
+    public String messageCode() {
+        return this.messageCode;
+    }
+}
@@ -0,0 +1,52 @@
+package pro.julleon.showcasespringbootrest.validation;
+
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Тела ответов с ошибками, построенные один раз для каждой локали: ErrorsPresentation неизменяем,
+// поэтому один экземпляр отдаётся во все ответы
+@Component
+public class TaskErrorMessages {
+
+    // Локаль приходит из Accept-Language, поэтому число кэшируемых локалей ограничено;
+    // сообщения для остальных строятся при каждом запросе
+    private static final int MAX_CACHED_LOCALES = 64;
+
+    private static final TaskErrorCode[] ERROR_CODES = TaskErrorCode.values();
+
+    private final MessageSource messageSource;
+
+    private final ConcurrentHashMap<Locale, ErrorsPresentation[]> presentations = new ConcurrentHashMap<>();
+
+    public TaskErrorMessages(MessageSource messageSource) {
+        this.messageSource = messageSource;
+    }
+
+    public ErrorsPresentation errors(TaskErrorCode errorCode, Locale locale) {
+        ErrorsPresentation[] localePresentations = this.presentations.get(locale);
+        if (localePresentations == null) {
+            localePresentations = resolve(locale);
+            if (this.presentations.size() < MAX_CACHED_LOCALES) {
+                final ErrorsPresentation[] previous = this.presentations.putIfAbsent(locale, localePresentations);
+                if (previous != null) {
+                    localePresentations = previous;
+                }
+            }
+        }
+        return localePresentations[errorCode.ordinal()];
+    }
+
+    private ErrorsPresentation[] resolve(Locale locale) {
+        final ErrorsPresentation[] localePresentations = new ErrorsPresentation[ERROR_CODES.length];
+        for (TaskErrorCode errorCode : ERROR_CODES) {
+            localePresentations[errorCode.ordinal()] = new ErrorsPresentation(List.of(
+                    this.messageSource.getMessage(errorCode.messageCode(), null, locale)));
+        }
+        return localePresentations;
+    }
+}
@@ -0,0 +1,30 @@
+package pro.julleon.showcasespringbootrest.validation;
+
+// Проверки полей возвращают код первой ошибки или null и ничего не выделяют в памяти
+public final class TaskValidation {
+
+    public static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    private TaskValidation() {
+    }
+
+    // Описание новой задачи обязательно
+    public static TaskErrorCode validateNewDescription(String description) {
+        return description == null ? TaskErrorCode.DESCRIPTION_NOT_SET : validateDescription(description);
+    }
+
+    // При изменении задачи незаданное описание остаётся прежним
+    public static TaskErrorCode validateUpdatedDescription(String description) {
+        return description == null ? null : validateDescription(description);
+    }
+
+    private static TaskErrorCode validateDescription(String description) {
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            return TaskErrorCode.DESCRIPTION_TOO_LONG;
+        }
+        if (description.isBlank()) {
+            return TaskErrorCode.DESCRIPTION_NOT_SET;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package pro.julleon.showcasespringbootrest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Холодный запуск в отдельной JVM: в процессе тестов классы уже загружены и прогреты.
+// Дополнительные параметры JVM, например для сравнения со сборкой -Pstartup:
+// -Dstartup.jvm-args="-XX:SharedArchiveFile=target/application.jsa"
+class ApplicationStartupIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @ParameterizedTest(name = "profile {0}")
+    @ValueSource(strings = {"default", "startup"})
+    @DisplayName("application started in a fresh JVM answers GET /api/tasks, time to first response is reported")
+    void main_FirstGetAllTasksSucceeds(String profile) throws Exception {
+        // Заданные данные
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks")).build();
+        Path log = Paths.get("target", "startup-" + profile + ".log");
+
+        // Запуск приложения и ожидание первого успешного ответа
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command(profile, port))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            int status = 0;
+            while (status != 200) {
+                Assertions.assertTrue(process.isAlive(), "application exited, see " + log);
+                Assertions.assertTrue(System.nanoTime() - started < STARTUP_TIMEOUT.toNanos(),
+                        "no response within " + STARTUP_TIMEOUT + ", see " + log);
+                try {
+                    status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (ConnectException exception) {
+                    Thread.sleep(10);
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            // Проверки результата
+            System.out.printf("Time to first successful GET /api/tasks (profile %s): %d ms%n", profile, elapsedMillis);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static List<String> command(String profile, int port) throws IOException {
+        final List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        final String jvmArgs = System.getProperty("startup.jvm-args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(List.of(jvmArgs.trim().split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Dserver.port=" + port);
+        command.add("-Dspring.profiles.active=" + profile);
+        command.add(ShowcaseSpringBootRestApplication.class.getName());
+        return command;
+    }
+}
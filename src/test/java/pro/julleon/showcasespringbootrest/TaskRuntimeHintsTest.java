@@ -0,0 +1,38 @@
+package pro.julleon.showcasespringbootrest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import pro.julleon.showcasespringbootrest.http.dto.NewTaskPayload;
+import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+class TaskRuntimeHintsTest {
+
+    @Test
+    @DisplayName("runtime hints cover request and response records and the message bundles")
+    void registerHints_CoversRecordsAndMessages() throws Exception {
+        // Заданные данные
+        RuntimeHints hints = new RuntimeHints();
+
+        // Регистрация подсказок
+        new TaskRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Проверки результата
+        for (Class<?> type : new Class<?>[]{Task.class, NewTaskPayload.class, ErrorsPresentation.class}) {
+            Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                    .onType(type)
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                    .test(hints), type.getName());
+        }
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(Task.class.getMethod("description"))
+                .test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.resource()
+                .forBundle("messages")
+                .test(hints));
+    }
+}
@@ -0,0 +1,37 @@
+package pro.julleon.showcasespringbootrest.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+class TaskAdmissionControlTest {
+
+    @Test
+    @DisplayName("X-Client-Id selects the bucket only when the header is trusted, otherwise the remote address does")
+    void admit_UsesClientIdHeaderOnlyWhenTrusted() {
+        // Заданные данные: корзина на одно создание, пополняемая раз в 1000 секунд
+        TaskAdmissionControl untrusted = new TaskAdmissionControl(new InMemoryTaskRepositoryImpl(false),
+                Long.MAX_VALUE, true, 1, 0.001, 16, false);
+        TaskAdmissionControl trusted = new TaskAdmissionControl(new InMemoryTaskRepositoryImpl(false),
+                Long.MAX_VALUE, true, 1, 0.001, 16, true);
+
+        // Проверки результата: один адрес с разными заголовками
+        Assertions.assertEquals(Admission.ADMITTED, untrusted.admit(request("10.0.0.1", "first"), 1));
+        Assertions.assertEquals(Admission.Status.RATE_LIMITED,
+                untrusted.admit(request("10.0.0.1", "second"), 1).status());
+        Assertions.assertEquals(Admission.ADMITTED, trusted.admit(request("10.0.0.1", "first"), 1));
+        Assertions.assertEquals(Admission.ADMITTED, trusted.admit(request("10.0.0.1", "second"), 1));
+        Assertions.assertEquals(Admission.Status.RATE_LIMITED,
+                trusted.admit(request("10.0.0.2", "second"), 1).status());
+    }
+
+    private static ServletWebRequest request(String remoteAddress, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tasks");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader(TaskAdmissionControl.CLIENT_ID_HEADER, clientId);
+        return new ServletWebRequest(request);
+    }
+}
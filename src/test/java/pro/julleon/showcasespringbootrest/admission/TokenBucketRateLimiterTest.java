@@ -0,0 +1,90 @@
+package pro.julleon.showcasespringbootrest.admission;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TokenBucketRateLimiterTest {
+
+    // Часы под управлением теста
+    AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("a client may spend its burst at once and then gets tokens back at the refill rate")
+    void tryAcquire_AllowsBurstThenRefills() {
+        // Заданные данные: 10 маркеров, 100 маркеров в секунду
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(10, 100, 16, this.nanoTime::get);
+
+        // Проверки результата
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, rateLimiter.tryAcquire("client", 1));
+        }
+        Assertions.assertEquals(10_000_000L, rateLimiter.tryAcquire("client", 1));
+        Assertions.assertEquals(0, rateLimiter.tryAcquire("other", 10));
+
+        this.nanoTime.addAndGet(25_000_000L);
+        Assertions.assertEquals(0, rateLimiter.tryAcquire("client", 2));
+        Assertions.assertEquals(15_000_000L, rateLimiter.tryAcquire("client", 2));
+        Assertions.assertEquals(TokenBucketRateLimiter.NEVER, rateLimiter.tryAcquire("client", 11));
+    }
+
+    @Test
+    @DisplayName("idle clients are swept when the key table is full and further clients share overflow buckets")
+    void tryAcquire_KeepsKeyTableBounded() {
+        // Заданные данные
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 1, 100, this.nanoTime::get);
+
+        // Заполнение таблицы клиентов сверх предела
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.tryAcquire("client-" + i, 1);
+        }
+
+        // Проверки результата: активные клиенты не вытесняются, таблица не растёт
+        Assertions.assertEquals(100, rateLimiter.clients());
+        Assertions.assertTrue(rateLimiter.tryAcquire("client-0", 1) > 0);
+
+        // После восстановления корзин они неотличимы от новых и удаляются
+        this.nanoTime.addAndGet(2_000_000_000L);
+        Assertions.assertEquals(0, rateLimiter.tryAcquire("new-client", 1));
+        Assertions.assertEquals(1, rateLimiter.clients());
+    }
+
+    @Test
+    @DisplayName("concurrent requests of one client never take more tokens than the bucket holds")
+    void tryAcquire_Concurrently_GrantsExactlyCapacity() throws Exception {
+        // Заданные данные: часы стоят, поэтому корзина не пополняется
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(10_000, 1, 16, this.nanoTime::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        // Конкурентное взятие маркеров
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                int granted = 0;
+                for (int i = 0; i < 5000; i++) {
+                    if (rateLimiter.tryAcquire("client", 1) == 0) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        int granted = 0;
+        for (Future<Integer> future : futures) {
+            granted += future.get();
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Проверки результата
+        Assertions.assertEquals(10_000, granted);
+    }
+}
@@ -0,0 +1,101 @@
+package pro.julleon.showcasespringbootrest.controllers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+class ReactiveTaskRestControllerIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    InMemoryTaskRepositoryImpl taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        // Очищение репозитория после каждого теста
+        this.taskRepository.clear();
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/tasks streams tasks as newline-delimited JSON")
+    void handelStreamAllTasks_ReturnsNewlineDelimitedJson() throws Exception {
+        // Заданные данные
+        List.of(
+                new Task(UUID.fromString("045ea98e-0320-4489-92d3-1cde446f94b1"), "First task", false),
+                new Task(UUID.fromString("5fe9c6b8-af62-460c-9320-a3cdc16ad5be"), "Second task", true)
+        ).forEach(this.taskRepository::save);
+
+        // Выполнение асинхронного запроса и проверки результата
+        MvcResult mvcResult = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/reactive/tasks").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON),
+                        MockMvcResultMatchers.content().string("""
+                                {"id":"045ea98e-0320-4489-92d3-1cde446f94b1","description":"First task","completed":false}
+                                {"id":"5fe9c6b8-af62-460c-9320-a3cdc16ad5be","description":"Second task","completed":true}
+                                """)
+                );
+    }
+
+    @Test
+    @DisplayName("POST /api/reactive/tasks creates a new task when payload is valid")
+    void handelCreateNewTask_ifPayloadIsValid_ReturnsCreatedTask() throws Exception {
+        // Выполнение асинхронного запроса
+        MvcResult mvcResult = this.mockMvc
+                .perform(MockMvcRequestBuilders.post("/api/reactive/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"description": "Third task"}
+                                """))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        // Проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isCreated(),
+                        MockMvcResultMatchers.header().exists(HttpHeaders.LOCATION),
+                        MockMvcResultMatchers.jsonPath("$.description").value("Third task"),
+                        MockMvcResultMatchers.jsonPath("$.id").exists()
+                );
+        Assertions.assertEquals(1, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/tasks/{id} returns 404 not found when task does not exist")
+    void handelFindTask_ReturnsNotFoundWhenTaskDoesNotExist() throws Exception {
+        // Выполнение асинхронного запроса и проверки результата
+        MvcResult mvcResult = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/reactive/tasks/{id}", UUID.randomUUID()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
@@ -0,0 +1,131 @@
+package pro.julleon.showcasespringbootrest.controllers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import pro.julleon.showcasespringbootrest.admission.TaskAdmissionControl;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+@SpringBootTest(properties = {
+        "tasks.admission.max-tasks=5",
+        "tasks.admission.rate-limit.capacity=3",
+        "tasks.admission.rate-limit.refill-per-second=0.001"})
+@AutoConfigureMockMvc
+class TaskAdmissionIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    InMemoryTaskRepositoryImpl taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        // Очищение репозитория после каждого теста
+        this.taskRepository.clear();
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks beyond the client's burst returns 429 with Retry-After, other clients are not affected")
+    void handelCreateNewTask_ifRateLimited_ReturnsTooManyRequests() throws Exception {
+        // Выполнение запросов в пределах корзины клиента
+        for (int i = 0; i < 3; i++) {
+            this.mockMvc
+                    .perform(createTask("limited-client"))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+
+        // Выполнение запросов и проверки результата
+        this.mockMvc
+                .perform(createTask("limited-client"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isTooManyRequests(),
+                        MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1000"),
+                        MockMvcResultMatchers.content().json("""
+                                {
+                                    "errors": ["Too many tasks created, retry later"]
+                                }
+                                """, true)
+                );
+        this.mockMvc
+                .perform(createTask("another-client"))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        Assertions.assertEquals(4, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks keys the rate limit on the remote address and ignores an untrusted X-Client-Id")
+    void handelCreateNewTask_ignoresUntrustedClientIdHeader() throws Exception {
+        // Выполнение запросов в пределах корзины адреса с разными заголовками
+        for (int i = 0; i < 3; i++) {
+            this.mockMvc
+                    .perform(createTask("spoofing-client").header(TaskAdmissionControl.CLIENT_ID_HEADER, "id-" + i))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(createTask("spoofing-client").header(TaskAdmissionControl.CLIENT_ID_HEADER, "id-3"))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+        Assertions.assertEquals(3, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch that would overflow the store returns 507 and saves nothing")
+    void handelCreateNewTasksBatch_ifStoreIsFull_ReturnsInsufficientStorage() throws Exception {
+        // Заданные данные
+        for (int i = 0; i < 3; i++) {
+            this.mockMvc
+                    .perform(createTask("client-" + i))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+                        .with(request -> {
+                            request.setRemoteAddr("batch-client");
+                            return request;
+                        })
+                        .content("""
+                                [{"description": "First task"}, {"description": "Second task"}, {"description": "Third task"}]
+                                """))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isInsufficientStorage(),
+                        MockMvcResultMatchers.content().json("""
+                                {
+                                    "errors": ["Task storage is full"]
+                                }
+                                """, true)
+                );
+        Assertions.assertEquals(3, this.taskRepository.size());
+    }
+
+    // Клиенты различаются адресом: заголовку X-Client-Id по умолчанию не доверяют
+    private MockHttpServletRequestBuilder createTask(String remoteAddress) {
+        return MockMvcRequestBuilders.post("/api/tasks")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+                .content("""
+                        {
+                            "description": "Task"
+                        }
+                        """);
+    }
+}
@@ -0,0 +1,138 @@
+package pro.julleon.showcasespringbootrest.controllers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import pro.julleon.showcasespringbootrest.http.dto.NewTaskPayload;
+import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskContentNegotiationIT {
+
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    InMemoryTaskRepositoryImpl taskRepository;
+
+    HttpClient httpClient = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        // Очищение репозитория после каждого теста
+        this.taskRepository.clear();
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/{id} with Accept: application/cbor returns the task encoded as CBOR")
+    void handelFindTask_acceptCbor_ReturnsCbor() throws Exception {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "First task", true);
+        this.taskRepository.save(task);
+
+        // Выполнение запроса
+        HttpResponse<byte[]> response = this.httpClient.send(HttpRequest
+                .newBuilder(uri("/api/tasks/" + task.id()))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Проверки результата
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals(MediaType.APPLICATION_CBOR_VALUE,
+                response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow());
+        Assertions.assertEquals(task, new CBORMapper().readValue(response.body(), Task.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks accepts Smile payloads and answers errors in Smile")
+    void handelCreateNewTask_smile_ReadsAndWritesSmile() throws Exception {
+        // Заданные данные
+        ObjectMapper smileMapper = new SmileMapper();
+
+        // Выполнение запросов с корректным и пустым описанием
+        HttpResponse<byte[]> created = this.httpClient.send(smileRequest("/api/tasks",
+                        smileMapper.writeValueAsBytes(new NewTaskPayload("Smile task"))),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> rejected = this.httpClient.send(smileRequest("/api/tasks",
+                        smileMapper.writeValueAsBytes(new NewTaskPayload(" "))),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        // Проверки результата
+        Assertions.assertEquals(201, created.statusCode());
+        Task task = smileMapper.readValue(created.body(), Task.class);
+        Assertions.assertEquals("Smile task", task.description());
+        Assertions.assertEquals(task, this.taskRepository.findById(task.id()).orElseThrow());
+        Assertions.assertEquals(400, rejected.statusCode());
+        Assertions.assertEquals(new ErrorsPresentation(List.of("Task description must be set")),
+                smileMapper.readValue(rejected.body(), ErrorsPresentation.class));
+    }
+
+    @Test
+    @DisplayName("large JSON lists are gzip-compressed with a weak ETag, small responses are sent as is")
+    void handelGetAllTasks_largeResponse_IsCompressed() throws Exception {
+        // Заданные данные
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task number " + i, false));
+        }
+        this.taskRepository.saveAll(tasks);
+
+        // Выполнение запросов списка и одной задачи
+        HttpResponse<InputStream> list = this.httpClient.send(HttpRequest
+                .newBuilder(uri("/api/tasks"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+        HttpResponse<byte[]> single = this.httpClient.send(HttpRequest
+                .newBuilder(uri("/api/tasks/" + tasks.get(0).id()))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Проверки результата
+        Assertions.assertEquals("gzip", list.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElseThrow());
+        Assertions.assertTrue(list.headers().firstValue(HttpHeaders.ETAG).orElseThrow().startsWith("W/\""));
+        try (InputStream body = new GZIPInputStream(list.body())) {
+            Assertions.assertEquals(tasks, new ObjectMapper().readValue(body, new TypeReference<List<Task>>() {
+            }));
+        }
+        Assertions.assertTrue(single.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON_VALUE,
+                single.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow());
+    }
+
+    private HttpRequest smileRequest(String path, byte[] body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header(HttpHeaders.CONTENT_TYPE, APPLICATION_SMILE_VALUE)
+                .header(HttpHeaders.ACCEPT, APPLICATION_SMILE_VALUE)
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+}
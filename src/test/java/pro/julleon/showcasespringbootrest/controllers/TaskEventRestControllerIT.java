@@ -0,0 +1,200 @@
+package pro.julleon.showcasespringbootrest.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import pro.julleon.showcasespringbootrest.events.TaskEventBroadcaster;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "tasks.events.buffer-size=16")
+class TaskEventRestControllerIT {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    InMemoryTaskRepositoryImpl taskRepository;
+
+    @Autowired
+    TaskEventBroadcaster taskEventBroadcaster;
+
+    HttpClient httpClient = HttpClient.newHttpClient();
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        // Очищение репозитория после каждого теста
+        this.taskRepository.clear();
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/events pushes created, updated and deleted tasks to a subscriber")
+    void handelSubscribeToTaskEvents_PushesTaskChanges() throws Exception {
+        // Подписка на события
+        try (InputStream body = subscribe(null)) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+            // Создание, изменение и удаление задачи через API
+            HttpResponse<String> created = this.httpClient.send(HttpRequest.newBuilder(uri("/api/tasks"))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"description\": \"Streamed task\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Task task = this.objectMapper.readValue(created.body(), Task.class);
+            this.httpClient.send(HttpRequest.newBuilder(uri("/api/tasks/" + task.id()))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"completed\": true}"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            this.httpClient.send(HttpRequest.newBuilder(uri("/api/tasks/" + task.id())).DELETE().build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            // Проверки результата
+            Map<String, String> createdEvent = readEvent(reader);
+            Assertions.assertEquals("task-created", createdEvent.get("event"));
+            Assertions.assertEquals(task, this.objectMapper.readValue(createdEvent.get("data"), Task.class));
+            Map<String, String> updatedEvent = readEvent(reader);
+            Assertions.assertEquals("task-updated", updatedEvent.get("event"));
+            Assertions.assertEquals(new Task(task.id(), "Streamed task", true),
+                    this.objectMapper.readValue(updatedEvent.get("data"), Task.class));
+            Map<String, String> deletedEvent = readEvent(reader);
+            Assertions.assertEquals("task-deleted", deletedEvent.get("event"));
+            Assertions.assertEquals(Map.of("id", task.id().toString()),
+                    this.objectMapper.readValue(deletedEvent.get("data"), Map.class));
+            Assertions.assertEquals(sequence(createdEvent.get("id")) + 2, sequence(deletedEvent.get("id")));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/events with Last-Event-ID resumes after that event")
+    void handelSubscribeToTaskEvents_withLastEventId_ResumesAfterIt() throws Exception {
+        // Заданные данные
+        List<Task> tasks = List.of(
+                new Task(UUID.randomUUID(), "First task", false),
+                new Task(UUID.randomUUID(), "Second task", false),
+                new Task(UUID.randomUUID(), "Third task", false));
+        tasks.forEach(this.taskRepository::save);
+        long firstEventId = this.taskEventBroadcaster.lastSequence() - 2;
+
+        // Подписка с номером первого события
+        try (InputStream body = subscribe(this.taskEventBroadcaster.eventId(firstEventId))) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+            // Проверки результата
+            for (int i = 1; i < tasks.size(); i++) {
+                Map<String, String> event = readEvent(reader);
+                Assertions.assertEquals(this.taskEventBroadcaster.eventId(firstEventId + i), event.get("id"));
+                Assertions.assertEquals(tasks.get(i), this.objectMapper.readValue(event.get("data"), Task.class));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/events with an evicted Last-Event-ID sends reset and the buffered events")
+    void handelSubscribeToTaskEvents_withEvictedLastEventId_SendsReset() throws Exception {
+        // Заданные данные: событий больше, чем помещается в буфер
+        long firstEventId = this.taskEventBroadcaster.lastSequence() + 1;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+        this.taskRepository.saveAll(tasks);
+
+        // Подписка с номером вытесненного события
+        try (InputStream body = subscribe(this.taskEventBroadcaster.eventId(firstEventId))) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+            // Проверки результата
+            Assertions.assertEquals(TaskEventBroadcaster.RESET_EVENT_NAME, readEvent(reader).get("event"));
+            Map<String, String> event = readEvent(reader);
+            Assertions.assertEquals(this.taskEventBroadcaster.eventId(firstEventId + 40 - 16), event.get("id"));
+            Assertions.assertEquals(tasks.get(40 - 16), this.objectMapper.readValue(event.get("data"), Task.class));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/events with a Last-Event-ID from a previous run sends reset even if its number is buffered")
+    void handelSubscribeToTaskEvents_withLastEventIdOfPreviousRun_SendsReset() throws Exception {
+        // Заданные данные
+        List<Task> tasks = List.of(
+                new Task(UUID.randomUUID(), "First task", false),
+                new Task(UUID.randomUUID(), "Second task", false));
+        tasks.forEach(this.taskRepository::save);
+        long firstEventId = this.taskEventBroadcaster.lastSequence() - 1;
+
+        // Подписка с тем же номером события, но с моментом запуска прошлого запуска
+        try (InputStream body = subscribe("0." + firstEventId)) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+            // Проверки результата
+            Map<String, String> reset = readEvent(reader);
+            Assertions.assertEquals(TaskEventBroadcaster.RESET_EVENT_NAME, reset.get("event"));
+            Assertions.assertEquals(Map.of("lastEventId", this.taskEventBroadcaster.eventId(firstEventId + 1)),
+                    this.objectMapper.readValue(reset.get("data"), Map.class));
+        }
+    }
+
+    private InputStream subscribe(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/tasks/events"))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .timeout(TIMEOUT);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = this.httpClient.send(request.build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow()
+                .startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        return response.body();
+    }
+
+    // Поля одного события SSE до пустой строки
+    private static Map<String, String> readEvent(BufferedReader reader) {
+        return Assertions.assertTimeoutPreemptively(TIMEOUT, () -> {
+            Map<String, String> fields = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null && !(line.isEmpty() && !fields.isEmpty())) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    fields.put(line.substring(0, colon), line.substring(colon + 1));
+                }
+            }
+            return fields;
+        });
+    }
+
+    // Номер события из идентификатора вида <момент запуска>.<номер>
+    private static long sequence(String eventId) {
+        return Long.parseLong(eventId.substring(eventId.indexOf('.') + 1));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+}
@@ -1,5 +1,6 @@
 package pro.julleon.showcasespringbootrest.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +11,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -32,7 +34,7 @@ class TaskRestControllerIT {
     @AfterEach
     void tearDown() {
         // Очищение репозитория после каждого теста
-        this.taskRepository.getTasks().clear();
+        this.taskRepository.clear();
     }
 
     @Test
@@ -41,10 +43,10 @@ class TaskRestControllerIT {
         // Заданные данные
         MockHttpServletRequestBuilder mockHttpServletRequestBuilder =
                 MockMvcRequestBuilders.get("/api/tasks");
-        this.taskRepository.getTasks().addAll(List.of(
+        List.of(
                 new Task(UUID.fromString("045ea98e-0320-4489-92d3-1cde446f94b1"), "First task", false),
                 new Task(UUID.fromString("5fe9c6b8-af62-460c-9320-a3cdc16ad5be"), "Second task", true)
-        ));
+        ).forEach(this.taskRepository::save);
 
         // Выполнение запроса и проверки результата
         this.mockMvc
@@ -71,6 +73,91 @@ class TaskRestControllerIT {
                 );
     }
 
+    @Test
+    @DisplayName("GET /api/tasks?limit&cursor pages through tasks in insertion order")
+    void handelGetTasksPage_PagesThroughAllTasks() throws Exception {
+        // Заданные данные
+        List.of(
+                new Task(UUID.fromString("045ea98e-0320-4489-92d3-1cde446f94b1"), "First task", false),
+                new Task(UUID.fromString("5fe9c6b8-af62-460c-9320-a3cdc16ad5be"), "Second task", true),
+                new Task(UUID.fromString("9a3bb1d2-5c6f-4d2e-8f0a-7b1c2d3e4f50"), "Third task", false)
+        ).forEach(this.taskRepository::save);
+
+        // Запрос первой страницы
+        MvcResult firstPage = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks").param("limit", "2"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.jsonPath("$.tasks.length()").value(2),
+                        MockMvcResultMatchers.jsonPath("$.tasks[0].description").value("First task"),
+                        MockMvcResultMatchers.jsonPath("$.tasks[1].description").value("Second task"),
+                        MockMvcResultMatchers.jsonPath("$.nextCursor").isString()
+                )
+                .andReturn();
+        String cursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        // Запрос второй, последней страницы по курсору
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.jsonPath("$.tasks.length()").value(1),
+                        MockMvcResultMatchers.jsonPath("$.tasks[0].description").value("Third task"),
+                        MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist()
+                );
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?limit&cursor when cursor is invalid " +
+                 "returns an response with status 400 bad request with error message")
+    void handelGetTasksPage_ifCursorIsInvalid_ReturnsBadRequest() throws Exception {
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks")
+                        .param("limit", "2")
+                        .param("cursor", "not-a-cursor")
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isBadRequest(),
+                        MockMvcResultMatchers.content().json("""
+                                {
+                                    "errors": ["Page cursor is invalid"]
+                                }
+                                """, true)
+                );
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks with Accept application/x-ndjson streams tasks one per line")
+    void handelStreamAllTasks_ReturnsNewlineDelimitedJson() throws Exception {
+        // Заданные данные
+        List.of(
+                new Task(UUID.fromString("045ea98e-0320-4489-92d3-1cde446f94b1"), "First task", false),
+                new Task(UUID.fromString("5fe9c6b8-af62-460c-9320-a3cdc16ad5be"), "Second task", true)
+        ).forEach(this.taskRepository::save);
+
+        // Выполнение асинхронного запроса
+        MvcResult mvcResult = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        // Проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON),
+                        MockMvcResultMatchers.content().string("""
+                                {"id":"045ea98e-0320-4489-92d3-1cde446f94b1","description":"First task","completed":false}
+                                {"id":"5fe9c6b8-af62-460c-9320-a3cdc16ad5be","description":"Second task","completed":true}
+                                """)
+                );
+    }
+
     @Test
     @DisplayName("POST /api/tasks creates a new task when payload is valid " +
                  "and returns an response with status 200 ok the newly created task and its location")
@@ -104,8 +191,8 @@ class TaskRestControllerIT {
                 );
 
         // Проверка, что задача была добавлена в репозиторий
-        Assertions.assertEquals(1, this.taskRepository.getTasks().size());
-        Task task = this.taskRepository.getTasks().get(0);
+        Assertions.assertEquals(1, this.taskRepository.size());
+        Task task = this.taskRepository.findAll().get(0);
         Assertions.assertNotNull(task.id());
         Assertions.assertEquals("Third task", task.description());
         Assertions.assertFalse(task.completed());
@@ -141,7 +228,124 @@ class TaskRestControllerIT {
                 );
 
         // Проверка, что задача не была добавлена в репозиторий
-        Assertions.assertTrue(this.taskRepository.getTasks().isEmpty());
+        Assertions.assertEquals(0, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks when description is too long " +
+                 "returns an response with status 400 bad request with error message")
+    void handelCreateNewTask_ifDescriptionIsTooLong_ReturnsBadRequest() throws Exception {
+        // Заданные данные
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder =
+                MockMvcRequestBuilders.post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+                        .content("{\"description\": \"" + "x".repeat(1001) + "\"}");
+
+        // Выполнение запроса и проверки результата
+        mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isBadRequest(),
+                        MockMvcResultMatchers.content().json("""
+                                {
+                                    "errors": ["Task description must be at most 1000 characters"]
+                                }
+                                """, true)
+                );
+
+        // Проверка, что задача не была добавлена в репозиторий
+        Assertions.assertEquals(0, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch creates valid tasks and returns per-item results")
+    void handelCreateNewTasksBatch_ReturnsPerItemResults() throws Exception {
+        // Заданные данные
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder =
+                MockMvcRequestBuilders.post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+                        .content("""
+                                [
+                                    {"description": "First task"},
+                                    {"description": null},
+                                    {"description": "Second task"}
+                                ]
+                                """);
+
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.jsonPath("$.results.length()").value(3),
+                        MockMvcResultMatchers.jsonPath("$.results[0].id").isString(),
+                        MockMvcResultMatchers.jsonPath("$.results[1].id").doesNotExist(),
+                        MockMvcResultMatchers.jsonPath("$.results[1].errors[0]").value("Task description must be set"),
+                        MockMvcResultMatchers.jsonPath("$.results[2].id").isString()
+                );
+
+        // Проверка, что в репозиторий добавлены только валидные задачи
+        Assertions.assertEquals(List.of("First task", "Second task"),
+                this.taskRepository.findAll().stream().map(Task::description).toList());
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch accepts newline-delimited JSON payloads")
+    void handelCreateNewTasksBatchStream_ReturnsPerItemResults() throws Exception {
+        // Заданные данные
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder =
+                MockMvcRequestBuilders.post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"description": "First task"}
+                                {"description": "Second task"}
+                                """);
+
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.jsonPath("$.results.length()").value(2),
+                        MockMvcResultMatchers.jsonPath("$.results[0].id").isString(),
+                        MockMvcResultMatchers.jsonPath("$.results[1].id").isString()
+                );
+
+        // Проверка, что обе задачи добавлены в репозиторий
+        Assertions.assertEquals(2, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch with a malformed newline-delimited JSON line returns 400 and saves nothing")
+    void handelCreateNewTasksBatchStream_malformedLine_ReturnsBadRequest() throws Exception {
+        // Заданные данные
+        MockHttpServletRequestBuilder mockHttpServletRequestBuilder =
+                MockMvcRequestBuilders.post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+                        .content("""
+                                {"description": "First task"}
+                                {"description": "Second task"
+                                """);
+
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(mockHttpServletRequestBuilder)
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isBadRequest(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.content().json("""
+                                {
+                                    "errors": ["Batch line is not a valid task JSON object"]
+                                }
+                                """, true)
+                );
+
+        // Проверка, что задачи не добавлены в репозиторий
+        Assertions.assertEquals(0, this.taskRepository.size());
     }
 
     @Test
@@ -171,6 +375,111 @@ class TaskRestControllerIT {
                 );
     }
 
+    @Test
+    @DisplayName("GET /api/tasks with If-None-Match returns 304 until the store changes")
+    void handelGetAllTasks_ifNoneMatch_ReturnsNotModifiedUntilStoreChanges() throws Exception {
+        // Заданные данные
+        this.taskRepository.save(new Task(UUID.randomUUID(), "First task", false));
+        String eTag = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.header().exists(HttpHeaders.ETAG),
+                        MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "no-cache")
+                )
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Повторный запрос без изменений в хранилище
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isNotModified(),
+                        MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag),
+                        MockMvcResultMatchers.content().string("")
+                );
+
+        // Повторный запрос после добавления задачи
+        this.taskRepository.save(new Task(UUID.randomUUID(), "Second task", false));
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.jsonPath("$.length()").value(2)
+                );
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/{id} with If-None-Match returns 304 until the task is saved again")
+    void handelFindTask_ifNoneMatch_ReturnsNotModifiedUntilTaskChanges() throws Exception {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "Test Task", false);
+        this.taskRepository.save(task);
+        String eTag = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/{id}", task.id()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Изменение другой задачи не влияет на ETag этой задачи
+        this.taskRepository.save(new Task(UUID.randomUUID(), "Other task", false));
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/{id}", task.id())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        // Повторное сохранение задачи меняет её ETag
+        this.taskRepository.save(new Task(task.id(), "Test Task", true));
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/{id}", task.id())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.jsonPath("$.completed").value(true)
+                );
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/search returns tasks matching every query term by prefix, most relevant first")
+    void handelSearchTasks_ReturnsMatchingTasksInRelevanceOrder() throws Exception {
+        // Заданные данные
+        List.of(
+                new Task(UUID.fromString("045ea98e-0320-4489-92d3-1cde446f94b1"), "Send reporting dashboard", false),
+                new Task(UUID.fromString("5fe9c6b8-af62-460c-9320-a3cdc16ad5be"), "Send report", true),
+                new Task(UUID.fromString("9a3bb1d2-5c6f-4d2e-8f0a-7b1c2d3e4f50"), "Buy milk", false)
+        ).forEach(this.taskRepository::save);
+
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/search").param("q", "send REP"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.jsonPath("$.length()").value(2),
+                        MockMvcResultMatchers.jsonPath("$[0].description").value("Send report"),
+                        MockMvcResultMatchers.jsonPath("$[1].description").value("Send reporting dashboard")
+                );
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/search").param("q", "send").param("limit", "1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/search without query returns 400 bad request with error message")
+    void handelSearchTasks_ifQueryIsMissing_ReturnsBadRequest() throws Exception {
+        // Выполнение запроса и проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/search")
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isBadRequest(),
+                        MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON),
+                        MockMvcResultMatchers.content().json("""
+                                {
+                                    "errors": ["Search query must be set"]
+                                }
+                                """)
+                );
+    }
+
     @Test
     @DisplayName("GET /api/tasks/{id} returns http-response with status 404 not found when task does not exist")
     void handelFindTask_ReturnsNotFoundWhenTaskDoesNotExist() throws Exception {
@@ -185,4 +494,129 @@ class TaskRestControllerIT {
                         MockMvcResultMatchers.content().string("") // Проверка, что тело ответа пусто
                 );
     }
+
+    @Test
+    @DisplayName("PATCH /api/tasks/{id} with If-Match updates the task once and rejects the stale ETag with 412")
+    void handelUpdateTask_ifMatch_UpdatesOnceAndRejectsStaleETag() throws Exception {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "Test Task", false);
+        this.taskRepository.save(task);
+        String eTag = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/{id}", task.id()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Изменение по актуальному ETag
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.patch("/api/tasks/{id}", task.id())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"completed": true}
+                                """))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.header().exists(HttpHeaders.ETAG),
+                        MockMvcResultMatchers.jsonPath("$.description").value("Test Task"),
+                        MockMvcResultMatchers.jsonPath("$.completed").value(true)
+                );
+
+        // Повторное изменение по устаревшему ETag
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.patch("/api/tasks/{id}", task.id())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"description": "Changed task"}
+                                """))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isPreconditionFailed(),
+                        MockMvcResultMatchers.content().json("""
+                                {
+                                    "errors": ["Task has been modified or deleted since it was read"]
+                                }
+                                """)
+                );
+
+        // Проверка, что сохранено только первое изменение
+        Assertions.assertEquals(new Task(task.id(), "Test Task", true),
+                this.taskRepository.findById(task.id()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/tasks/{id} returns 204 no content and the task is no longer found")
+    void handelDeleteTask_DeletesTask() throws Exception {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "Test Task", false);
+        this.taskRepository.save(task);
+
+        // Выполнение запросов и проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.delete("/api/tasks/{id}", task.id()))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.delete("/api/tasks/{id}", task.id()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/{id}", task.id()))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?completed filters tasks by status, pages keep the filter and counts follow updates")
+    void handelGetAllTasks_completed_FiltersByStatus() throws Exception {
+        // Заданные данные
+        Task first = new Task(UUID.fromString("045ea98e-0320-4489-92d3-1cde446f94b1"), "First task", false);
+        Task second = new Task(UUID.fromString("5fe9c6b8-af62-460c-9320-a3cdc16ad5be"), "Second task", true);
+        Task third = new Task(UUID.fromString("9a4b0c1e-3f5d-4e2a-8b7c-6d1e2f3a4b5c"), "Third task", false);
+        List.of(first, second, third).forEach(this.taskRepository::save);
+
+        // Выполнение запросов и проверки результата
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks").param("completed", "true"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.jsonPath("$.length()").value(1),
+                        MockMvcResultMatchers.jsonPath("$[0].description").value("Second task")
+                );
+        MvcResult firstPage = this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks")
+                        .param("completed", "false")
+                        .param("limit", "1"))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.jsonPath("$.tasks[0].description").value("First task"),
+                        MockMvcResultMatchers.jsonPath("$.nextCursor").isString()
+                )
+                .andReturn();
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks")
+                        .param("completed", "false")
+                        .param("limit", "1")
+                        .param("cursor", JsonPath.<String>read(firstPage.getResponse().getContentAsString(), "$.nextCursor")))
+                .andExpectAll(
+                        MockMvcResultMatchers.status().isOk(),
+                        MockMvcResultMatchers.jsonPath("$.tasks[0].description").value("Third task"),
+                        MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist()
+                );
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/counts"))
+                .andExpect(MockMvcResultMatchers.content().json("""
+                        {"open": 2, "completed": 1}
+                        """));
+
+        // Завершение задачи меняет счётчики
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.patch("/api/tasks/{id}", first.id())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"completed": true}
+                                """))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        this.mockMvc
+                .perform(MockMvcRequestBuilders.get("/api/tasks/counts"))
+                .andExpect(MockMvcResultMatchers.content().json("""
+                        {"open": 1, "completed": 2}
+                        """));
+    }
 }
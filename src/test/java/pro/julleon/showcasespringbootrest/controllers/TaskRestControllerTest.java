@@ -5,22 +5,40 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.MessageSource;
 import org.springframework.http.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
+import pro.julleon.showcasespringbootrest.admission.Admission;
+import pro.julleon.showcasespringbootrest.admission.TaskAdmissionControl;
 import pro.julleon.showcasespringbootrest.http.dto.NewTaskPayload;
+import pro.julleon.showcasespringbootrest.http.dto.TaskBatchItemPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TaskCountsPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TasksBatchPresentation;
+import pro.julleon.showcasespringbootrest.http.dto.TasksPagePresentation;
+import pro.julleon.showcasespringbootrest.http.dto.UpdateTaskPayload;
 import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+import pro.julleon.showcasespringbootrest.ids.TaskIdGenerator;
+import pro.julleon.showcasespringbootrest.ids.impl.TimeOrderedTaskIdGenerator;
 import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
 import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorCode;
+import pro.julleon.showcasespringbootrest.validation.TaskErrorMessages;
 
 import java.net.URI;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,11 +48,19 @@ class TaskRestControllerTest {
     TaskRepository taskRepository;
 
     @Mock
-    MessageSource messageSource;
+    TaskErrorMessages taskErrorMessages;
+
+    @Mock
+    TaskAdmissionControl taskAdmissionControl;
+
+    @Spy
+    TaskIdGenerator taskIdGenerator = new TimeOrderedTaskIdGenerator();
 
     @InjectMocks
     TaskRestController taskRestController;
 
+    ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+
 
     @Test
     @DisplayName("GET /api/tasks returns http-response with status 200 ok and list of tasks")
@@ -48,38 +74,130 @@ class TaskRestControllerTest {
         Mockito.doReturn(taskList).when(this.taskRepository).findAll();
 
         // Вызов метода контроллера
-        ResponseEntity<List<Task>> responseEntity = this.taskRestController.handelGetAllTasks();
+        ResponseEntity<List<Task>> responseEntity = this.taskRestController.handelGetAllTasks(null, this.webRequest);
 
         // Проверки на валидность возвращенного ResponseEntity
         Assertions.assertNotNull(responseEntity);
         Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-        Assertions.assertEquals(MediaType.APPLICATION_JSON, responseEntity.getHeaders().getContentType());
+        Assertions.assertNull(responseEntity.getHeaders().getContentType());
 
         // Проверка, что тело ответа содержит те же задачи, которые были заданы в списке
         Assertions.assertEquals(taskList, responseEntity.getBody());
     }
 
+    @Test
+    @DisplayName("GET /api/tasks?limit returns http-response with status 200 ok, page of tasks and next cursor")
+    void handelGetTasksPage_ReturnsValidResponseEntity() {
+        // Заданные данные
+        List<Task> taskList = List.of(
+                new Task(UUID.randomUUID(), "First task", false),
+                new Task(UUID.randomUUID(), "Second task", true));
+
+        // Настройка поведения макета taskRepository для возврата первой страницы
+        Mockito.doReturn(new TaskPage(taskList, OptionalLong.of(2)))
+                .when(this.taskRepository).findPage(0, 2);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelGetTasksPage(2, null, null, this.webRequest, Locale.ENGLISH);
+
+        // Проверки на валидность возвращенного ResponseEntity
+        Assertions.assertNotNull(responseEntity);
+        Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        Assertions.assertNull(responseEntity.getHeaders().getContentType());
+
+        // Проверка, что тело ответа содержит страницу задач и курсор следующей страницы
+        if (responseEntity.getBody() instanceof TasksPagePresentation page) {
+            Assertions.assertEquals(taskList, page.tasks());
+            Assertions.assertNotNull(page.nextCursor());
+        } else {
+            Assertions.assertInstanceOf(TasksPagePresentation.class, responseEntity.getBody());
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?limit when limit is out of range " +
+                 "returns an response with status 400 bad request with error message")
+    void handelGetTasksPage_ifLimitIsOutOfRange_ReturnsBadRequest() {
+        // Заданные данные
+        Locale locale = Locale.US;
+        String errorMessage = "Limit is out of range";
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.PAGE_LIMIT_OUT_OF_RANGE, locale);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelGetTasksPage(0, null, null, this.webRequest, locale);
+
+        // Проверки на валидность возвращенного ResponseEntity
+        Assertions.assertNotNull(responseEntity);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        Assertions.assertEquals(new ErrorsPresentation(List.of(errorMessage)), responseEntity.getBody());
+
+        // Проверяем, что методы taskRepository не были вызваны
+        Mockito.verifyNoInteractions(this.taskRepository);
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/search returns http-response with status 200 ok and matching tasks")
+    void handelSearchTasks_ReturnsValidResponseEntity() {
+        // Заданные данные
+        List<Task> taskList = List.of(new Task(UUID.randomUUID(), "Send report", false));
+        Mockito.doReturn(taskList).when(this.taskRepository).search("rep", 20);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController.handelSearchTasks("rep", 20, Locale.ENGLISH);
+
+        // Проверки на валидность возвращенного ResponseEntity
+        Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        Assertions.assertNull(responseEntity.getHeaders().getContentType());
+        Assertions.assertEquals(taskList, responseEntity.getBody());
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/search when query is blank " +
+                 "returns an response with status 400 bad request with error message")
+    void handelSearchTasks_ifQueryIsBlank_ReturnsBadRequest() {
+        // Заданные данные
+        Locale locale = Locale.US;
+        String errorMessage = "Search query must be set";
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.SEARCH_QUERY_NOT_SET, locale);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController.handelSearchTasks(" ", 20, locale);
+
+        // Проверки на валидность возвращенного ResponseEntity
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        Assertions.assertEquals(new ErrorsPresentation(List.of(errorMessage)), responseEntity.getBody());
+
+        // Проверяем, что методы taskRepository не были вызваны
+        Mockito.verifyNoInteractions(this.taskRepository);
+    }
+
     @Test
     @DisplayName("POST /api/tasks creates a new task when payload is valid " +
                  "and returns an response with status 200 ok the newly created task and its location")
     void handelCreateNewTask_ifPayloadIsValid_ReturnsValidResponseEntity() {
         // Заданные данные
         String description = "Third task";
+        Mockito.doReturn(Admission.ADMITTED).when(this.taskAdmissionControl).admit(this.webRequest, 1);
 
         // Вызов метода контроллера
         ResponseEntity<?> responseEntity = this.taskRestController
                 .handelCreateNewTask(new NewTaskPayload(description),
-                        UriComponentsBuilder.fromUriString("http://localhost:8080"), Locale.ENGLISH);
+                        UriComponentsBuilder.fromUriString("http://localhost:8080"), this.webRequest, Locale.ENGLISH);
 
         // Проверки на валидность возвращенного ResponseEntity
         Assertions.assertNotNull(responseEntity);
         Assertions.assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
-        Assertions.assertEquals(MediaType.APPLICATION_JSON, responseEntity.getHeaders().getContentType());
+        Assertions.assertNull(responseEntity.getHeaders().getContentType());
 
         // Проверка, является ли тело ResponseEntity экземпляром Task
         if (responseEntity.getBody() instanceof Task task) {
             // Если является, то проверяем поля Task
             Assertions.assertNotNull(task.id());
+            Assertions.assertEquals(7, task.id().version());
             Assertions.assertEquals(description, task.description());
             Assertions.assertFalse(task.completed());
 
@@ -106,26 +224,136 @@ class TaskRestControllerTest {
         String description = "  "; // Невалидное описание, например, состоящее только из пробелов
         Locale locale = Locale.US;
         String errorMessage = "Description is empty"; // Ожидаемое сообщение об ошибке
-        // Настройка поведения макета messageSource для возврата заданного сообщения об ошибке
-        Mockito.doReturn(errorMessage).when(this.messageSource)
-                .getMessage("tasks.create.description.errors.not_set", new Object[0], locale);
+        // Настройка поведения макета taskErrorMessages для возврата заданного сообщения об ошибке
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.DESCRIPTION_NOT_SET, locale);
 
         // Вызов метода контроллера с невалидным payload
         ResponseEntity<?> responseEntity = this.taskRestController
                 .handelCreateNewTask(new NewTaskPayload(description),
-                        UriComponentsBuilder.fromUriString("http://localhost:8080"), locale);
+                        UriComponentsBuilder.fromUriString("http://localhost:8080"), this.webRequest, locale);
 
         // Проверки на валидность возвращенного ResponseEntity
         Assertions.assertNotNull(responseEntity);
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
-        Assertions.assertEquals(MediaType.APPLICATION_JSON, responseEntity.getHeaders().getContentType());
+        Assertions.assertNull(responseEntity.getHeaders().getContentType());
         // Проверка, что тело ответа содержит ожидаемое сообщение об ошибке
         Assertions.assertEquals(new ErrorsPresentation(List.of(errorMessage)), responseEntity.getBody());
 
+        // Проверяем, что методы taskRepository не были вызваны, а невалидный запрос не расходует лимит
+        Mockito.verifyNoInteractions(this.taskRepository, this.taskAdmissionControl);
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks when client exceeds its rate limit " +
+                 "returns an response with status 429 too many requests and Retry-After")
+    void handelCreateNewTask_ifRateLimited_ReturnsTooManyRequests() {
+        // Заданные данные
+        Locale locale = Locale.US;
+        String errorMessage = "Too many tasks";
+        Mockito.doReturn(new Admission(Admission.Status.RATE_LIMITED, OptionalLong.of(2)))
+                .when(this.taskAdmissionControl).admit(this.webRequest, 1);
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.RATE_LIMITED, locale);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelCreateNewTask(new NewTaskPayload("Task"),
+                        UriComponentsBuilder.fromUriString("http://localhost:8080"), this.webRequest, locale);
+
+        // Проверки результата
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, responseEntity.getStatusCode());
+        Assertions.assertEquals("2", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(new ErrorsPresentation(List.of(errorMessage)), responseEntity.getBody());
+        Mockito.verifyNoInteractions(this.taskRepository);
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch saves valid tasks in one repository call " +
+                 "and returns an response with status 200 ok and per-item results")
+    @SuppressWarnings("unchecked")
+    void handelCreateNewTasksBatch_ReturnsPerItemResults() {
+        // Заданные данные
+        Locale locale = Locale.US;
+        String errorMessage = "Description is empty";
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.DESCRIPTION_NOT_SET, locale);
+        // Допуск запрашивается только для валидных задач
+        Mockito.doReturn(Admission.ADMITTED).when(this.taskAdmissionControl).admit(this.webRequest, 2);
+
+        // Вызов метода контроллера с валидными и невалидными элементами
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelCreateNewTasksBatch(List.of(
+                        new NewTaskPayload("First task"),
+                        new NewTaskPayload(" "),
+                        new NewTaskPayload("Second task")), this.webRequest, locale);
+
+        // Проверки на валидность возвращенного ResponseEntity
+        Assertions.assertNotNull(responseEntity);
+        Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        Assertions.assertNull(responseEntity.getHeaders().getContentType());
+
+        // Проверяем, что валидные задачи сохранены одним вызовом saveAll
+        ArgumentCaptor<List<Task>> tasksCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(this.taskRepository).saveAll(tasksCaptor.capture());
+        Mockito.verifyNoMoreInteractions(this.taskRepository);
+        List<Task> savedTasks = tasksCaptor.getValue();
+        Assertions.assertEquals(List.of("First task", "Second task"),
+                savedTasks.stream().map(Task::description).toList());
+
+        // Проверка результатов по каждому элементу пакета
+        Assertions.assertEquals(new TasksBatchPresentation(List.of(
+                new TaskBatchItemPresentation(savedTasks.get(0).id(), null),
+                new TaskBatchItemPresentation(null, List.of(errorMessage)),
+                new TaskBatchItemPresentation(savedTasks.get(1).id(), null)
+        )), responseEntity.getBody());
+    }
+
+    @Test
+    @DisplayName("POST /api/tasks/batch when batch is empty " +
+                 "returns an response with status 400 bad request with error message")
+    void handelCreateNewTasksBatch_ifBatchIsEmpty_ReturnsBadRequest() {
+        // Заданные данные
+        Locale locale = Locale.US;
+        String errorMessage = "Batch is empty";
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.BATCH_SIZE_OUT_OF_RANGE, locale);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelCreateNewTasksBatch(List.of(), this.webRequest, locale);
+
+        // Проверки на валидность возвращенного ResponseEntity
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        Assertions.assertEquals(new ErrorsPresentation(List.of(errorMessage)), responseEntity.getBody());
+
         // Проверяем, что методы taskRepository не были вызваны
         Mockito.verifyNoInteractions(this.taskRepository);
     }
 
+    @Test
+    @DisplayName("POST /api/tasks/batch when the store is full " +
+                 "returns an response with status 507 insufficient storage and saves nothing")
+    void handelCreateNewTasksBatch_ifStoreIsFull_ReturnsInsufficientStorage() {
+        // Заданные данные
+        Locale locale = Locale.US;
+        String errorMessage = "Storage is full";
+        Mockito.doReturn(Admission.STORE_FULL).when(this.taskAdmissionControl).admit(this.webRequest, 2);
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.STORE_FULL, locale);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelCreateNewTasksBatch(List.of(
+                        new NewTaskPayload("First task"),
+                        new NewTaskPayload("Second task")), this.webRequest, locale);
+
+        // Проверки результата
+        Assertions.assertEquals(HttpStatus.INSUFFICIENT_STORAGE, responseEntity.getStatusCode());
+        Assertions.assertEquals(new ErrorsPresentation(List.of(errorMessage)), responseEntity.getBody());
+        Mockito.verifyNoInteractions(this.taskRepository);
+    }
+
     @Test
     @DisplayName("GET /api/tasks/{id} returns http-response with status 200 ok and task details when task exists")
     void handelFindTask_ReturnsValidResponseEntity() {
@@ -134,21 +362,44 @@ class TaskRestControllerTest {
         Task task = new Task(taskId, "Test Task", false);
 
         // Настройка поведения макета taskRepository
-        Mockito.doReturn(Optional.of(task)).when(this.taskRepository).findById(taskId);
+        Mockito.doReturn(Optional.of(new VersionedTask(task, 7))).when(this.taskRepository).findVersionedById(taskId);
 
         // Вызов метода контроллера
-        ResponseEntity<Task> responseEntity = this.taskRestController.handelFindTask(taskId);
+        ResponseEntity<Task> responseEntity = this.taskRestController.handelFindTask(taskId, this.webRequest);
 
         // Проверки на валидность возвращенного ResponseEntity
         Assertions.assertNotNull(responseEntity);
         Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-        Assertions.assertEquals(MediaType.APPLICATION_JSON, responseEntity.getHeaders().getContentType());
+        Assertions.assertNull(responseEntity.getHeaders().getContentType());
+        Assertions.assertTrue(responseEntity.getHeaders().getETag().endsWith(".7\""));
+        Assertions.assertEquals("no-cache", responseEntity.getHeaders().getCacheControl());
 
         // Проверка, что тело ответа содержит ожидаемые детали задачи
         Assertions.assertEquals(task, responseEntity.getBody());
 
-        // Проверяем, что метод findById был вызван с ожидаемым аргументом
-        Mockito.verify(taskRepository).findById(taskId);
+        // Проверяем, что метод findVersionedById был вызван с ожидаемым аргументом
+        Mockito.verify(taskRepository).findVersionedById(taskId);
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/{id} with matching If-None-Match returns status 304 not modified without a body")
+    void handelFindTask_ifETagMatches_ReturnsNotModified() {
+        // Заданные данные
+        UUID taskId = UUID.randomUUID();
+        Mockito.doReturn(Optional.of(new VersionedTask(new Task(taskId, "Test Task", false), 7)))
+                .when(this.taskRepository).findVersionedById(taskId);
+        String eTag = this.taskRestController.handelFindTask(taskId, this.webRequest).getHeaders().getETag();
+
+        // Вызов метода контроллера с ETag из предыдущего ответа
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/" + taskId);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        ResponseEntity<Task> responseEntity = this.taskRestController
+                .handelFindTask(taskId, new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        // Проверки результата
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        Assertions.assertEquals(eTag, responseEntity.getHeaders().getETag());
+        Assertions.assertNull(responseEntity.getBody());
     }
 
     @Test
@@ -158,18 +409,79 @@ class TaskRestControllerTest {
         UUID nonExistentTaskId = UUID.randomUUID();
 
         // Настройка поведения макета taskRepository для возврата пустого Optional
-        Mockito.when(taskRepository.findById(nonExistentTaskId)).thenReturn(Optional.empty());
+        Mockito.when(taskRepository.findVersionedById(nonExistentTaskId)).thenReturn(Optional.empty());
 
         // Вызов метода контроллера
-        ResponseEntity<Task> responseEntity = this.taskRestController.handelFindTask(nonExistentTaskId);
+        ResponseEntity<Task> responseEntity = this.taskRestController
+                .handelFindTask(nonExistentTaskId, this.webRequest);
 
         // Проверки на валидность возвращенного ResponseEntity
         Assertions.assertNotNull(responseEntity);
         Assertions.assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
         Assertions.assertNull(responseEntity.getBody()); // Для 404 Not Found тело обычно пустое
 
-        // Проверяем, что метод findById был вызван с ожидаемым аргументом
-        Mockito.verify(taskRepository).findById(nonExistentTaskId);
+        // Проверяем, что метод findVersionedById был вызван с ожидаемым аргументом
+        Mockito.verify(taskRepository).findVersionedById(nonExistentTaskId);
+    }
+
+    @Test
+    @DisplayName("PATCH /api/tasks/{id} replaces the current version and retries after a concurrent change")
+    void handelUpdateTask_RetriesAfterConcurrentChange() {
+        // Заданные данные
+        UUID taskId = UUID.randomUUID();
+        Task task = new Task(taskId, "Test Task", false);
+        Task completed = new Task(taskId, "Test Task", true);
+        Mockito.when(this.taskRepository.findVersionedById(taskId))
+                .thenReturn(Optional.of(new VersionedTask(task, 1)))
+                .thenReturn(Optional.of(new VersionedTask(task, 2)));
+        Mockito.doReturn(Optional.empty()).when(this.taskRepository).replace(completed, 1);
+        Mockito.doReturn(Optional.of(new VersionedTask(completed, 3))).when(this.taskRepository).replace(completed, 2);
+
+        // Вызов метода контроллера
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelUpdateTask(taskId, new UpdateTaskPayload(null, true), null, Locale.ENGLISH);
+
+        // Проверки результата
+        Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        Assertions.assertEquals(completed, responseEntity.getBody());
+        Assertions.assertTrue(responseEntity.getHeaders().getETag().endsWith(".3\""));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/tasks/{id} with a stale If-Match returns status 412 precondition failed")
+    void handelUpdateTask_ifETagIsStale_ReturnsPreconditionFailed() {
+        // Заданные данные
+        UUID taskId = UUID.randomUUID();
+        Locale locale = Locale.US;
+        String errorMessage = "Task has been modified";
+        Mockito.doReturn(new ErrorsPresentation(List.of(errorMessage))).when(this.taskErrorMessages)
+                .errors(TaskErrorCode.PRECONDITION_FAILED, locale);
+        Mockito.doReturn(Optional.of(new VersionedTask(new Task(taskId, "Test Task", false), 2)))
+                .when(this.taskRepository).findVersionedById(taskId);
+
+        // Вызов метода контроллера с ETag предыдущей версии
+        ResponseEntity<?> responseEntity = this.taskRestController
+                .handelUpdateTask(taskId, new UpdateTaskPayload(null, true), "\"stale.1\"", locale);
+
+        // Проверки результата
+        Assertions.assertEquals(HttpStatus.PRECONDITION_FAILED, responseEntity.getStatusCode());
+        Assertions.assertEquals(new ErrorsPresentation(List.of(errorMessage)), responseEntity.getBody());
+        Mockito.verify(this.taskRepository, Mockito.never()).replace(Mockito.any(), Mockito.anyLong());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("GET /api/tasks/counts returns open and completed task counts from the repository")
+    void handelCountTasks_ReturnsCountsByStatus() {
+        // Заданные данные
+        Mockito.doReturn(3).when(this.taskRepository).count(false);
+        Mockito.doReturn(2).when(this.taskRepository).count(true);
+
+        // Вызов метода контроллера
+        ResponseEntity<TaskCountsPresentation> responseEntity = this.taskRestController.handelCountTasks(this.webRequest);
+
+        // Проверки результата
+        Assertions.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        Assertions.assertEquals(new TaskCountsPresentation(3, 2), responseEntity.getBody());
+        Mockito.verify(this.taskRepository, Mockito.never()).findAll();
+    }
+}
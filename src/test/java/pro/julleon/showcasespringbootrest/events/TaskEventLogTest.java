@@ -0,0 +1,47 @@
+package pro.julleon.showcasespringbootrest.events;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.UUID;
+
+class TaskEventLogTest {
+
+    @Test
+    @DisplayName("events are numbered from 1 and readable until the ring buffer wraps around")
+    void read_ReturnsEventsUntilOverwritten() {
+        // Заданные данные
+        TaskEventLog taskEventLog = new TaskEventLog(8);
+        Task task = new Task(UUID.randomUUID(), "Task", false);
+
+        // Вызов метода
+        for (int i = 0; i < 20; i++) {
+            taskEventLog.append(TaskEvent.Type.CREATED, task.id(), task);
+        }
+
+        // Проверки результата: в буфере последние 8 событий, более старые вытеснены, следующее ещё не записано
+        Assertions.assertEquals(8, taskEventLog.capacity());
+        Assertions.assertEquals(20, taskEventLog.lastSequence());
+        Assertions.assertEquals(13, taskEventLog.firstSequence());
+        for (long sequence = 13; sequence <= 20; sequence++) {
+            Assertions.assertEquals(sequence, taskEventLog.read(sequence).sequence());
+        }
+        Assertions.assertTrue(taskEventLog.read(12).sequence() > 12);
+        Assertions.assertTrue(taskEventLog.read(21).sequence() < 21);
+        Assertions.assertEquals(task, taskEventLog.read(20).task());
+    }
+
+    @Test
+    @DisplayName("capacity is rounded up to a power of two and unwritten slots read as null")
+    void read_EmptyLog_ReturnsNull() {
+        // Заданные данные
+        TaskEventLog taskEventLog = new TaskEventLog(100);
+
+        // Проверки результата
+        Assertions.assertEquals(128, taskEventLog.capacity());
+        Assertions.assertEquals(1, taskEventLog.firstSequence());
+        Assertions.assertNull(taskEventLog.read(1));
+    }
+}
@@ -0,0 +1,88 @@
+package pro.julleon.showcasespringbootrest.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+import pro.julleon.showcasespringbootrest.repositories.TaskRepository;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+class TaskEventsAspectTest {
+
+    TaskEventBroadcaster taskEventBroadcaster = new TaskEventBroadcaster(4096, 1, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        this.taskEventBroadcaster.close();
+    }
+
+    @Test
+    @DisplayName("concurrent updates of one task are published in the order of its versions")
+    void replace_ConcurrentUpdatesArePublishedInVersionOrder() throws Exception {
+        // Заданные данные: хранилище, которое задерживает возврат после замены, и прокси с аспектом событий
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new InMemoryTaskRepositoryImpl(false) {
+            @Override
+            public Optional<VersionedTask> replace(Task task, long expectedVersion) {
+                Optional<VersionedTask> replaced = super.replace(task, expectedVersion);
+                LockSupport.parkNanos(100_000);
+                return replaced;
+            }
+        });
+        proxyFactory.addAspect(new TaskEventsAspect(this.taskEventBroadcaster));
+        TaskRepository taskRepository = proxyFactory.getProxy();
+        int threads = 4;
+        int updatesPerThread = 100;
+        UUID taskId = UUID.randomUUID();
+        taskRepository.save(new Task(taskId, "0", false));
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            // Каждый поток увеличивает счётчик в описании через чтение и условную замену с повтором
+            for (int t = 0; t < threads; t++) {
+                results.add(executorService.submit(() -> {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        while (true) {
+                            VersionedTask current = taskRepository.findVersionedById(taskId).orElseThrow();
+                            Task next = new Task(taskId,
+                                    String.valueOf(Integer.parseInt(current.task().description()) + 1), false);
+                            if (taskRepository.replace(next, current.version()).isPresent()) {
+                                break;
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Проверки результата: события изменения идут по возрастанию счётчика без пропусков
+        TaskEventLog taskEventLog = this.taskEventBroadcaster.taskEventLog();
+        Assertions.assertEquals(1 + threads * updatesPerThread, taskEventLog.lastSequence());
+        Assertions.assertEquals(TaskEvent.Type.CREATED, taskEventLog.read(1).type());
+        for (int sequence = 2; sequence <= taskEventLog.lastSequence(); sequence++) {
+            TaskEvent event = taskEventLog.read(sequence);
+            Assertions.assertEquals(TaskEvent.Type.UPDATED, event.type());
+            Assertions.assertEquals(String.valueOf(sequence - 1), event.task().description());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pro.julleon.showcasespringbootrest.http.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pro.julleon.showcasespringbootrest.http.dto.TasksPagePresentation;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class TaskJsonCacheModuleTest {
+
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    @DisplayName("cached fragments produce exactly the JSON of the default serializer and are reused")
+    void serialize_ProducesDefaultJsonAndReusesFragments() throws Exception {
+        // Заданные данные
+        TaskJsonCache taskJsonCache = new TaskJsonCache(1 << 20);
+        ObjectMapper cachingObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new TaskJsonCacheModule(taskJsonCache))
+                .build();
+        List<Task> tasks = List.of(
+                new Task(UUID.randomUUID(), "First \"task\"", false),
+                new Task(UUID.randomUUID(), null, true),
+                new Task(UUID.randomUUID(), "Задача ✓", false));
+        Object page = new TasksPagePresentation(tasks, "cursor");
+
+        // Проверки результата: первый проход заполняет кэш, второй берёт фрагменты из него
+        for (int pass = 0; pass < 2; pass++) {
+            Assertions.assertEquals(this.objectMapper.writeValueAsString(tasks),
+                    cachingObjectMapper.writeValueAsString(tasks));
+            Assertions.assertArrayEquals(this.objectMapper.writeValueAsBytes(page),
+                    cachingObjectMapper.writeValueAsBytes(page));
+            Assertions.assertEquals(this.objectMapper.writeValueAsString(Map.of("task", tasks.get(0))),
+                    cachingObjectMapper.writeValueAsString(Map.of("task", tasks.get(0))));
+        }
+        Assertions.assertEquals(3, taskJsonCache.misses());
+        Assertions.assertEquals(11, taskJsonCache.hits());
+    }
+
+    @Test
+    @DisplayName("a changed task with the same id is serialized again instead of served from cache")
+    void serialize_ChangedTask_IsNotServedFromCache() throws Exception {
+        // Заданные данные
+        TaskJsonCache taskJsonCache = new TaskJsonCache(1 << 20);
+        ObjectMapper cachingObjectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new TaskJsonCacheModule(taskJsonCache))
+                .build();
+        Task task = new Task(UUID.randomUUID(), "Task", false);
+        Task completed = new Task(task.id(), "Task", true);
+
+        // Сериализация задачи до и после изменения
+        cachingObjectMapper.writeValueAsString(task);
+        String json = cachingObjectMapper.writeValueAsString(completed);
+
+        // Проверки результата
+        Assertions.assertEquals(this.objectMapper.writeValueAsString(completed), json);
+        Assertions.assertEquals(1, taskJsonCache.size());
+        Assertions.assertEquals(2, taskJsonCache.misses());
+    }
+
+    @Test
+    @DisplayName("cache evicts entries to stay within its size bound")
+    void put_EvictsEntriesBeyondMaxSize() {
+        // Заданные данные
+        TaskJsonCache taskJsonCache = new TaskJsonCache(64 * 1024);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+
+        // Заполнение кэша сверх предела
+        for (Task task : tasks) {
+            taskJsonCache.put(task, "{\"description\":\"" + task.description() + "\"}");
+        }
+
+        // Проверки результата
+        Assertions.assertTrue(taskJsonCache.bytes() <= 64 * 1024);
+        Assertions.assertTrue(taskJsonCache.size() > 0 && taskJsonCache.size() < tasks.size());
+    }
+}
@@ -0,0 +1,70 @@
+package pro.julleon.showcasespringbootrest.ids.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class TimeOrderedTaskIdGeneratorTest {
+
+    TimeOrderedTaskIdGenerator taskIdGenerator = new TimeOrderedTaskIdGenerator();
+
+    @Test
+    @DisplayName("ids are version 7 UUIDs carrying the current time and strictly increasing within a thread")
+    void nextId_ReturnsIncreasingVersion7Ids() {
+        // Заданные данные
+        long before = System.currentTimeMillis();
+        UUID previous = this.taskIdGenerator.nextId();
+
+        // Проверки результата: в том числе больше 4096 идентификаторов за одну миллисекунду
+        for (int i = 0; i < 100_000; i++) {
+            UUID id = this.taskIdGenerator.nextId();
+            Assertions.assertEquals(7, id.version());
+            Assertions.assertEquals(2, id.variant());
+            Assertions.assertTrue(id.compareTo(previous) > 0);
+            previous = id;
+        }
+        Assertions.assertTrue((previous.getMostSignificantBits() >>> 16) >= before);
+    }
+
+    @Test
+    @DisplayName("concurrent generation produces unique ids")
+    void nextId_ConcurrentIdsAreUnique() throws Exception {
+        // Заданные данные
+        int threads = 8;
+        int idsPerThread = 100_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<List<UUID>>> results = new ArrayList<>();
+
+        try {
+            // Параллельная генерация идентификаторов
+            for (int t = 0; t < threads; t++) {
+                results.add(executorService.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(idsPerThread);
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(this.taskIdGenerator.nextId());
+                    }
+                    return ids;
+                }));
+            }
+
+            // Проверка, что повторов нет
+            Set<UUID> ids = new HashSet<>();
+            for (Future<List<UUID>> result : results) {
+                ids.addAll(result.get(1, TimeUnit.MINUTES));
+            }
+            Assertions.assertEquals(threads * idsPerThread, ids.size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
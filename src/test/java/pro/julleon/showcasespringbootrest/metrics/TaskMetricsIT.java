@@ -0,0 +1,97 @@
+package pro.julleon.showcasespringbootrest.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.repositories.impl.InMemoryTaskRepositoryImpl;
+
+import java.util.UUID;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class TaskMetricsIT {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    InMemoryTaskRepositoryImpl taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        // Очищение репозитория после каждого теста
+        this.taskRepository.clear();
+    }
+
+    @Test
+    @DisplayName("handler and repository calls are timed per method")
+    void handlers_AreTimedPerMethod() throws Exception {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "First task", false);
+        this.taskRepository.save(task);
+
+        // Выполнение запроса
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/tasks/{id}", task.id()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // Проверки результата
+        Assertions.assertEquals(1, this.meterRegistry.get("tasks.http.handler")
+                .tag("method", "handelFindTask").timer().count());
+        Assertions.assertEquals(1, this.meterRegistry.get("tasks.repository")
+                .tag("method", "findVersionedById").timer().count());
+    }
+
+    @Test
+    @DisplayName("JSON response size is recorded as the number of bytes written")
+    void jsonResponses_RecordSerializationTimeAndSize() throws Exception {
+        // Заданные данные
+        this.taskRepository.save(new Task(UUID.randomUUID(), "First task", false));
+        long countBefore = this.meterRegistry.get("tasks.http.json.serialization").timer().count();
+        double totalBefore = this.meterRegistry.get("tasks.http.json.response.size").summary().totalAmount();
+
+        // Выполнение запроса
+        int contentLength = this.mockMvc.perform(MockMvcRequestBuilders.get("/api/tasks"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+
+        // Проверки результата
+        Assertions.assertEquals(countBefore + 1,
+                this.meterRegistry.get("tasks.http.json.serialization").timer().count());
+        Assertions.assertEquals(totalBefore + contentLength,
+                this.meterRegistry.get("tasks.http.json.response.size").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus exposes histograms and the store size gauge")
+    void prometheusEndpoint_ExposesTaskMetrics() throws Exception {
+        // Заданные данные
+        this.taskRepository.save(new Task(UUID.randomUUID(), "First task", false));
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/tasks"));
+
+        // Выполнение запроса и проверки результата
+        String scrape = this.mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")
+                        .accept(MediaType.TEXT_PLAIN))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertTrue(scrape.contains("tasks_http_handler_seconds_bucket{"));
+        Assertions.assertTrue(scrape.contains("tasks_repository_seconds_bucket{"));
+        Assertions.assertTrue(scrape.contains("tasks_http_json_serialization_seconds_bucket{"));
+        Assertions.assertTrue(scrape.contains("tasks_http_json_response_size_bytes_bucket{"));
+        Assertions.assertTrue(scrape.contains("tasks_store_size{repository=\"InMemoryTaskRepositoryImpl\",} 1.0"));
+    }
+}
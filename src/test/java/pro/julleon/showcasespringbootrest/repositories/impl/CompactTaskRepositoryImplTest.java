@@ -0,0 +1,317 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class CompactTaskRepositoryImplTest {
+
+    CompactTaskRepositoryImpl taskRepository = new CompactTaskRepositoryImpl(true);
+
+    @Test
+    @DisplayName("tasks are materialized with the same id, description and completion flag they were saved with")
+    void findById_ReturnsEqualTask() {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "Описание задачи ✓", true);
+        Task withoutDescription = new Task(UUID.randomUUID(), null, false);
+        this.taskRepository.save(task);
+        this.taskRepository.save(withoutDescription);
+
+        // Проверки результата
+        Assertions.assertEquals(task, this.taskRepository.findById(task.id()).orElseThrow());
+        Assertions.assertEquals(withoutDescription, this.taskRepository.findById(withoutDescription.id()).orElseThrow());
+        Assertions.assertTrue(this.taskRepository.findById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("saving an existing id replaces the task in place")
+    void save_ReplacesExistingTaskInPlace() {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Second task", false);
+        Task firstUpdated = new Task(first.id(), "First task, updated", true);
+
+        // Сохранение задач, повторное сохранение первой задачи
+        this.taskRepository.saveAll(List.of(first, second));
+        this.taskRepository.save(firstUpdated);
+
+        // Проверки результата
+        Assertions.assertEquals(List.of(firstUpdated, second), this.taskRepository.findAll());
+        Assertions.assertEquals(2, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("store grows past its initial capacity and arena chunk size without losing tasks")
+    void save_GrowsBeyondInitialCapacity() {
+        // Заданные данные: много задач и описание больше блока арены
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+        tasks.add(new Task(UUID.randomUUID(), "x".repeat(3 << 20), false));
+        tasks.forEach(this.taskRepository::save);
+
+        // Проверки результата
+        Assertions.assertEquals(tasks, this.taskRepository.findAll());
+        for (Task task : tasks) {
+            Assertions.assertEquals(task, this.taskRepository.findById(task.id()).orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("findPage returns bounded pages in insertion order")
+    void findPage_ReturnsBoundedPages() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+        this.taskRepository.saveAll(saved);
+
+        // Последовательный обход страниц по курсору
+        List<Task> visited = new ArrayList<>();
+        TaskPage page = this.taskRepository.findPage(0, 2);
+        visited.addAll(page.tasks());
+        while (page.nextPosition().isPresent()) {
+            page = this.taskRepository.findPage(page.nextPosition().getAsLong(), 2);
+            visited.addAll(page.tasks());
+        }
+
+        // Проверки результата
+        Assertions.assertEquals(saved, visited);
+        Assertions.assertEquals(saved, this.taskRepository.streamAll().toList());
+    }
+
+    @Test
+    @DisplayName("concurrent save and findById neither lose nor duplicate tasks")
+    void concurrentAccess_NeitherLosesNorDuplicatesTasks() throws Exception {
+        // Заданные данные
+        int writers = 8;
+        int tasksPerWriter = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Task>>> results = new ArrayList<>();
+
+        try {
+            // Писатели сохраняют задачи и сразу читают их по идентификатору
+            for (int w = 0; w < writers; w++) {
+                results.add(executorService.submit(() -> {
+                    start.await();
+                    List<Task> saved = new ArrayList<>(tasksPerWriter);
+                    for (int i = 0; i < tasksPerWriter; i++) {
+                        Task task = new Task(UUID.randomUUID(), "Task " + i, false);
+                        this.taskRepository.save(task);
+                        Assertions.assertEquals(task, this.taskRepository.findById(task.id()).orElseThrow());
+                        saved.add(task);
+                    }
+                    return saved;
+                }));
+            }
+            start.countDown();
+
+            Set<Task> expected = new HashSet<>();
+            for (Future<List<Task>> result : results) {
+                expected.addAll(result.get(1, TimeUnit.MINUTES));
+            }
+
+            // Проверка, что ни одна задача не потеряна и не продублирована
+            List<Task> actual = this.taskRepository.findAll();
+            Assertions.assertEquals(writers * tasksPerWriter, actual.size());
+            Assertions.assertEquals(expected, new HashSet<>(actual));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("store version changes on every save and task version only when that task is saved")
+    void version_ChangesOnSave() {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        this.taskRepository.save(first);
+        long storeVersion = this.taskRepository.version();
+        long firstVersion = this.taskRepository.findVersionedById(first.id()).orElseThrow().version();
+
+        // Сохранение другой задачи
+        this.taskRepository.saveAll(List.of(new Task(UUID.randomUUID(), "Second task", false)));
+        Assertions.assertTrue(this.taskRepository.version() > storeVersion);
+        Assertions.assertEquals(firstVersion, this.taskRepository.findVersionedById(first.id()).orElseThrow().version());
+
+        // Повторное сохранение первой задачи
+        Task firstCompleted = new Task(first.id(), "First task", true);
+        this.taskRepository.save(firstCompleted);
+        VersionedTask versionedTask = this.taskRepository.findVersionedById(first.id()).orElseThrow();
+        Assertions.assertEquals(firstCompleted, versionedTask.task());
+        Assertions.assertTrue(versionedTask.version() > firstVersion);
+    }
+
+    @Test
+    @DisplayName("replace and delete succeed only for the current task version")
+    void replaceAndDelete_CompareVersions() {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "Buy milk", false);
+        this.taskRepository.save(task);
+        long version = this.taskRepository.findVersionedById(task.id()).orElseThrow().version();
+
+        // Замена по актуальной версии и повторная замена по устаревшей
+        Task completed = new Task(task.id(), "Buy milk", true);
+        VersionedTask replaced = this.taskRepository.replace(completed, version).orElseThrow();
+        Assertions.assertEquals(completed, replaced.task());
+        Assertions.assertTrue(this.taskRepository.replace(task, version).isEmpty());
+        Assertions.assertEquals(completed, this.taskRepository.findById(task.id()).orElseThrow());
+
+        // Удаление по устаревшей и по актуальной версии
+        Assertions.assertFalse(this.taskRepository.delete(task.id(), version));
+        Assertions.assertTrue(this.taskRepository.delete(task.id(), replaced.version()));
+
+        // Проверки результата
+        Assertions.assertTrue(this.taskRepository.findById(task.id()).isEmpty());
+        Assertions.assertEquals(List.of(), this.taskRepository.findAll());
+        Assertions.assertEquals(List.of(), this.taskRepository.search("milk", 10));
+        Assertions.assertEquals(0, this.taskRepository.size());
+        Assertions.assertTrue(this.taskRepository.replace(completed, replaced.version()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("deleted slots are skipped by paging and reused when the task is saved again")
+    void delete_SkipsDeletedSlotsAndReusesThem() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+        this.taskRepository.saveAll(saved);
+        for (int i : new int[]{1, 2}) {
+            Task task = saved.get(i);
+            this.taskRepository.delete(task.id(),
+                    this.taskRepository.findVersionedById(task.id()).orElseThrow().version());
+        }
+
+        // Проверки результата
+        TaskPage page = this.taskRepository.findPage(0, 2);
+        Assertions.assertEquals(List.of(saved.get(0), saved.get(3)), page.tasks());
+        Assertions.assertEquals(List.of(saved.get(4)),
+                this.taskRepository.findPage(page.nextPosition().orElseThrow(), 2).tasks());
+        Assertions.assertEquals(List.of(saved.get(0), saved.get(3), saved.get(4)),
+                this.taskRepository.streamAll().toList());
+
+        // Повторное сохранение удалённой задачи возвращает её на прежнее место
+        this.taskRepository.save(saved.get(1));
+        Assertions.assertEquals(List.of(saved.get(0), saved.get(1), saved.get(3), saved.get(4)),
+                this.taskRepository.findAll());
+        Assertions.assertEquals(4, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("filtered pages walk the status bitmaps and counts follow saves, replaces and deletes")
+    void findPage_FiltersByCompletionAndCountsFollowChanges() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            saved.add(new Task(UUID.randomUUID(), "Task " + i, i % 3 == 0));
+        }
+        this.taskRepository.saveAll(saved);
+
+        // Завершение открытой задачи и удаление выполненной
+        Task opened = saved.get(1);
+        Task completed = new Task(opened.id(), opened.description(), true);
+        this.taskRepository.replace(completed,
+                this.taskRepository.findVersionedById(opened.id()).orElseThrow().version());
+        Task deleted = saved.get(3);
+        this.taskRepository.delete(deleted.id(),
+                this.taskRepository.findVersionedById(deleted.id()).orElseThrow().version());
+        saved.set(1, completed);
+        saved.remove(3);
+
+        // Проверки результата
+        for (boolean status : new boolean[]{false, true}) {
+            List<Task> expected = saved.stream().filter(task -> task.completed() == status).toList();
+            List<Task> visited = new ArrayList<>();
+            TaskPage page = this.taskRepository.findPage(0, 7, status);
+            visited.addAll(page.tasks());
+            while (page.nextPosition().isPresent()) {
+                page = this.taskRepository.findPage(page.nextPosition().getAsLong(), 7, status);
+                Assertions.assertFalse(page.tasks().isEmpty());
+                visited.addAll(page.tasks());
+            }
+            Assertions.assertEquals(expected, visited);
+            Assertions.assertEquals(expected.size(), this.taskRepository.count(status));
+        }
+    }
+
+    @Test
+    @DisplayName("create, replace and delete churn is compacted and page cursors stay valid across compaction")
+    void compact_BoundsSlotsAndArenaUnderChurn() {
+        // Заданные данные: страница задач, курсор которой переживёт уплотнение
+        List<Task> kept = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            kept.add(new Task(UUID.randomUUID(), "Kept task " + i, i % 2 == 0));
+        }
+        this.taskRepository.saveAll(kept.subList(0, 10));
+        TaskPage firstPage = this.taskRepository.findPage(0, 5);
+
+        // Создание, замена и удаление задач в цикле
+        for (int i = 0; i < 100_000; i++) {
+            Task task = new Task(UUID.randomUUID(), "Task with a long enough description " + i, false);
+            this.taskRepository.save(task);
+            VersionedTask replaced = this.taskRepository.replace(
+                    new Task(task.id(), task.description() + ", updated", true),
+                    this.taskRepository.findVersionedById(task.id()).orElseThrow().version()).orElseThrow();
+            Assertions.assertTrue(this.taskRepository.delete(task.id(), replaced.version()));
+        }
+        this.taskRepository.saveAll(kept.subList(10, 20));
+
+        // Проверки результата
+        Assertions.assertTrue(this.taskRepository.allocatedSlots() < 3_000);
+        Assertions.assertTrue(this.taskRepository.arenaBytes() < 3 << 20);
+        Assertions.assertEquals(kept, this.taskRepository.findAll());
+        Assertions.assertEquals(kept.subList(5, 20),
+                this.taskRepository.findPage(firstPage.nextPosition().orElseThrow(), 100).tasks());
+        Assertions.assertEquals(kept.stream().filter(Task::completed).toList(),
+                this.taskRepository.findPage(0, 100, true).tasks());
+        Assertions.assertEquals(List.of(kept.get(7)), this.taskRepository.search("kept 7", 10));
+        Assertions.assertEquals(List.of(), this.taskRepository.search("updated", 10));
+        Assertions.assertEquals(20, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("replace that triggers compaction returns the version of the replaced task")
+    void replace_ReturnsStoredVersionAfterCompaction() {
+        // Заданные данные: удалённых слотов больше, чем живых, поэтому следующая запись уплотнит хранилище
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            Task task = new Task(UUID.randomUUID(), "Task " + i, false);
+            this.taskRepository.save(task);
+            saved.add(task);
+        }
+        for (Task task : saved.subList(0, 2_000)) {
+            Assertions.assertTrue(this.taskRepository.delete(task.id(),
+                    this.taskRepository.findVersionedById(task.id()).orElseThrow().version()));
+        }
+        Task last = saved.get(saved.size() - 1);
+        long lastVersion = this.taskRepository.findVersionedById(last.id()).orElseThrow().version();
+
+        // Замена, перед которой хранилище уплотняется
+        Task completed = new Task(last.id(), last.description(), true);
+        VersionedTask replaced = this.taskRepository.replace(completed, lastVersion).orElseThrow();
+
+        // Проверки результата
+        Assertions.assertEquals(1_000, this.taskRepository.allocatedSlots());
+        Assertions.assertEquals(this.taskRepository.findVersionedById(last.id()).orElseThrow(), replaced);
+        Assertions.assertEquals(this.taskRepository.version(), replaced.version());
+    }
+}
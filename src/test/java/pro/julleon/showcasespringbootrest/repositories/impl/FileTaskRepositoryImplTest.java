@@ -0,0 +1,217 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class FileTaskRepositoryImplTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("tasks saved before close are recovered from the log after restart")
+    void save_TasksAreRecoveredAfterRestart() throws Exception {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Вторая задача", true);
+        Task firstCompleted = new Task(first.id(), "First task", true);
+
+        // Сохранение задач и закрытие хранилища
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            taskRepository.save(first);
+            taskRepository.saveAll(List.of(second, firstCompleted));
+        }
+
+        // Проверка восстановления после перезапуска
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            Assertions.assertEquals(List.of(firstCompleted, second), taskRepository.findAll());
+            Assertions.assertEquals(second, taskRepository.findById(second.id()).orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("snapshot is written and log truncated once the threshold is reached, recovery replays both")
+    void save_WritesSnapshotAndRecoversFromSnapshotAndLogTail() throws Exception {
+        // Заданные данные
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            tasks.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+
+        // Сохранение задач с порогом снимка в 10 записей
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 10, 16, false)) {
+            tasks.forEach(taskRepository::save);
+        }
+
+        // Проверка, что снимок создан, а журнал содержит только хвост после него
+        Assertions.assertTrue(Files.size(this.directory.resolve(FileTaskRepositoryImpl.SNAPSHOT_FILE_NAME)) > 0);
+        Assertions.assertTrue(Files.size(this.directory.resolve(FileTaskRepositoryImpl.LOG_FILE_NAME))
+                              < Files.size(this.directory.resolve(FileTaskRepositoryImpl.SNAPSHOT_FILE_NAME)));
+        Assertions.assertFalse(Files.exists(this.directory.resolve(FileTaskRepositoryImpl.ROTATED_LOG_FILE_NAME)));
+
+        // Проверка восстановления из снимка и хвоста журнала
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 10, 16, false)) {
+            Assertions.assertEquals(tasks, taskRepository.findAll());
+        }
+    }
+
+    @Test
+    @DisplayName("torn record at the end of the log is discarded on recovery and appending continues")
+    void recovery_DiscardsTornLogTail() throws Exception {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Second task", false);
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            taskRepository.save(first);
+            taskRepository.save(second);
+        }
+
+        // Имитация аварии посреди записи второй задачи
+        Path log = this.directory.resolve(FileTaskRepositoryImpl.LOG_FILE_NAME);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // Проверка, что уцелевшая задача восстановлена и новые записи не теряются
+        Task third = new Task(UUID.randomUUID(), "Third task", false);
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            Assertions.assertEquals(List.of(first), taskRepository.findAll());
+            taskRepository.save(third);
+        }
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            Assertions.assertEquals(List.of(first, third), taskRepository.findAll());
+        }
+    }
+
+    @Test
+    @DisplayName("concurrent saves are group-committed without losing tasks")
+    void save_ConcurrentSavesAreNotLost() throws Exception {
+        // Заданные данные
+        int writers = 8;
+        int tasksPerWriter = 500;
+        ExecutorService executorService = Executors.newFixedThreadPool(writers);
+        List<Future<List<Task>>> results = new ArrayList<>();
+
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 64, false)) {
+            // Параллельное сохранение задач
+            for (int w = 0; w < writers; w++) {
+                results.add(executorService.submit(() -> {
+                    List<Task> saved = new ArrayList<>();
+                    for (int i = 0; i < tasksPerWriter; i++) {
+                        Task task = new Task(UUID.randomUUID(), "Task " + i, false);
+                        taskRepository.save(task);
+                        saved.add(task);
+                    }
+                    return saved;
+                }));
+            }
+            for (Future<List<Task>> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Проверка, что после перезапуска восстановлены все задачи
+        HashSet<Task> expected = new HashSet<>();
+        for (Future<List<Task>> result : results) {
+            expected.addAll(result.get());
+        }
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 64, false)) {
+            Assertions.assertEquals(writers * tasksPerWriter, taskRepository.size());
+            Assertions.assertEquals(expected, new HashSet<>(taskRepository.findAll()));
+        }
+    }
+
+    @Test
+    @DisplayName("log rotated for a snapshot that never completed is replayed before the current log")
+    void recovery_ReplaysRotatedLogLeftByInterruptedSnapshot() throws Exception {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Second task", false);
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            taskRepository.save(first);
+        }
+
+        // Журнал отложен для снимка, который не успел записаться, новые записи идут в новый журнал
+        Files.move(this.directory.resolve(FileTaskRepositoryImpl.LOG_FILE_NAME),
+                this.directory.resolve(FileTaskRepositoryImpl.ROTATED_LOG_FILE_NAME));
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            taskRepository.save(second);
+        }
+
+        // Проверка восстановления из отложенного и текущего журналов
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            Assertions.assertEquals(List.of(first, second), taskRepository.findAll());
+        }
+    }
+
+    @Test
+    @DisplayName("unchecked failure while committing fails only its own batch and the writer keeps running")
+    void save_UncheckedFailure_DoesNotStopWriter() throws Exception {
+        // Заданные данные: задача без идентификатора не кодируется в журнал
+        Task broken = new Task(null, "Broken task", false);
+        Task task = new Task(UUID.randomUUID(), "Task", false);
+
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            // Проверки результата
+            Assertions.assertThrows(NullPointerException.class, () -> taskRepository.save(broken));
+            taskRepository.save(task);
+            Assertions.assertEquals(List.of(task), taskRepository.findAll());
+        }
+    }
+
+    @Test
+    @DisplayName("save after close is rejected")
+    void save_AfterClose_ThrowsIllegalStateException() throws Exception {
+        // Заданные данные
+        FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false);
+        taskRepository.close();
+
+        // Проверка результата
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> taskRepository.save(new Task(UUID.randomUUID(), "Task", false)));
+    }
+
+    @Test
+    @DisplayName("conditional replace and delete are logged and recovered after restart")
+    void replaceAndDelete_AreRecoveredAfterRestart() throws Exception {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Second task", false);
+        Task firstCompleted = new Task(first.id(), "First task", true);
+
+        // Условная замена первой задачи и удаление второй
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            taskRepository.saveAll(List.of(first, second));
+            long firstVersion = taskRepository.findVersionedById(first.id()).orElseThrow().version();
+            long secondVersion = taskRepository.findVersionedById(second.id()).orElseThrow().version();
+            Assertions.assertTrue(taskRepository.replace(firstCompleted, firstVersion).isPresent());
+            Assertions.assertTrue(taskRepository.replace(first, firstVersion).isEmpty());
+            Assertions.assertFalse(taskRepository.delete(second.id(), firstVersion));
+            Assertions.assertTrue(taskRepository.delete(second.id(), secondVersion));
+        }
+
+        // Проверка восстановления после перезапуска
+        try (FileTaskRepositoryImpl taskRepository = new FileTaskRepositoryImpl(this.directory, 1_000, 16, false)) {
+            Assertions.assertEquals(List.of(firstCompleted), taskRepository.findAll());
+            Assertions.assertTrue(taskRepository.findById(second.id()).isEmpty());
+        }
+    }
+}
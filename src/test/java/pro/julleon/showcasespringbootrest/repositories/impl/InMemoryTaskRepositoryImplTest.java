@@ -0,0 +1,321 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class InMemoryTaskRepositoryImplTest {
+
+    InMemoryTaskRepositoryImpl taskRepository = new InMemoryTaskRepositoryImpl(true);
+
+    @Test
+    @DisplayName("findById returns saved task and empty result for unknown id")
+    void findById_ReturnsSavedTask() {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "First task", false);
+        this.taskRepository.save(task);
+
+        // Проверки результата
+        Assertions.assertEquals(task, this.taskRepository.findById(task.id()).orElseThrow());
+        Assertions.assertTrue(this.taskRepository.findById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findAll returns tasks in insertion order and saving an existing id keeps its position")
+    void findAll_ReturnsTasksInInsertionOrder() {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Second task", false);
+        Task firstCompleted = new Task(first.id(), "First task", true);
+
+        // Сохранение задач, повторное сохранение первой задачи
+        this.taskRepository.save(first);
+        this.taskRepository.save(second);
+        this.taskRepository.save(firstCompleted);
+
+        // Проверки результата
+        Assertions.assertEquals(List.of(firstCompleted, second), this.taskRepository.findAll());
+        Assertions.assertEquals(2, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("saveAll appends new tasks in order and replaces already stored ones in place")
+    void saveAll_AppendsNewTasksAndReplacesExisting() {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Second task", false);
+        Task third = new Task(UUID.randomUUID(), "Third task", false);
+        Task firstCompleted = new Task(first.id(), "First task", true);
+        this.taskRepository.save(first);
+
+        // Пакетное сохранение новых задач и повторное сохранение первой
+        this.taskRepository.saveAll(List.of(second, firstCompleted, third));
+
+        // Проверки результата
+        Assertions.assertEquals(List.of(firstCompleted, second, third), this.taskRepository.findAll());
+        Assertions.assertEquals(third, this.taskRepository.findById(third.id()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("findPage returns bounded pages after the given position until the store is exhausted")
+    void findPage_ReturnsBoundedPages() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task(UUID.randomUUID(), "Task " + i, false);
+            this.taskRepository.save(task);
+            saved.add(task);
+        }
+
+        // Последовательный обход страниц по курсору
+        List<Task> visited = new ArrayList<>();
+        long afterPosition = 0;
+        int pages = 0;
+        while (true) {
+            TaskPage page = this.taskRepository.findPage(afterPosition, 2);
+            Assertions.assertTrue(page.tasks().size() <= 2);
+            visited.addAll(page.tasks());
+            pages++;
+            if (page.nextPosition().isEmpty()) {
+                break;
+            }
+            afterPosition = page.nextPosition().getAsLong();
+        }
+
+        // Проверки результата
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(saved, visited);
+    }
+
+    @Test
+    @DisplayName("concurrent save, findById and findAll neither lose nor duplicate tasks")
+    void concurrentAccess_NeitherLosesNorDuplicatesTasks() throws Exception {
+        // Заданные данные
+        int writers = 8;
+        int readers = 4;
+        int tasksPerWriter = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Task>>> writerResults = new ArrayList<>();
+        List<Future<?>> readerResults = new ArrayList<>();
+
+        try {
+            // Писатели сохраняют задачи и сразу проверяют, что каждая находится по идентификатору
+            for (int w = 0; w < writers; w++) {
+                writerResults.add(executorService.submit(() -> {
+                    start.await();
+                    List<Task> saved = new ArrayList<>(tasksPerWriter);
+                    for (int i = 0; i < tasksPerWriter; i++) {
+                        Task task = new Task(UUID.randomUUID(), "Task " + i, false);
+                        this.taskRepository.save(task);
+                        Assertions.assertEquals(task, this.taskRepository.findById(task.id()).orElseThrow());
+                        saved.add(task);
+                    }
+                    return saved;
+                }));
+            }
+
+            // Читатели параллельно перебирают все задачи и проверяют отсутствие дубликатов
+            for (int r = 0; r < readers; r++) {
+                readerResults.add(executorService.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        List<Task> snapshot = this.taskRepository.findAll();
+                        Set<UUID> ids = new HashSet<>();
+                        snapshot.forEach(task -> Assertions.assertTrue(ids.add(task.id())));
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            Set<Task> expected = new HashSet<>();
+            for (Future<List<Task>> result : writerResults) {
+                expected.addAll(result.get(1, TimeUnit.MINUTES));
+            }
+            for (Future<?> result : readerResults) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+
+            // Проверка, что ни одна задача не потеряна и не продублирована
+            List<Task> actual = this.taskRepository.findAll();
+            Assertions.assertEquals(writers * tasksPerWriter, expected.size());
+            Assertions.assertEquals(expected.size(), actual.size());
+            Assertions.assertEquals(expected, new HashSet<>(actual));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("store version changes on every save and task version only when that task is saved")
+    void version_ChangesOnSave() {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        this.taskRepository.save(first);
+        long storeVersion = this.taskRepository.version();
+        long firstVersion = this.taskRepository.findVersionedById(first.id()).orElseThrow().version();
+
+        // Сохранение другой задачи
+        this.taskRepository.saveAll(List.of(new Task(UUID.randomUUID(), "Second task", false)));
+        Assertions.assertTrue(this.taskRepository.version() > storeVersion);
+        Assertions.assertEquals(firstVersion, this.taskRepository.findVersionedById(first.id()).orElseThrow().version());
+
+        // Повторное сохранение первой задачи
+        Task firstCompleted = new Task(first.id(), "First task", true);
+        this.taskRepository.save(firstCompleted);
+        VersionedTask versionedTask = this.taskRepository.findVersionedById(first.id()).orElseThrow();
+        Assertions.assertEquals(firstCompleted, versionedTask.task());
+        Assertions.assertTrue(versionedTask.version() > firstVersion);
+    }
+
+    @Test
+    @DisplayName("replace and delete succeed only for the current task version")
+    void replaceAndDelete_CompareVersions() {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "Buy milk", false);
+        this.taskRepository.save(task);
+        long version = this.taskRepository.findVersionedById(task.id()).orElseThrow().version();
+
+        // Замена по актуальной версии и повторная замена по устаревшей
+        Task completed = new Task(task.id(), "Buy milk", true);
+        VersionedTask replaced = this.taskRepository.replace(completed, version).orElseThrow();
+        Assertions.assertEquals(completed, replaced.task());
+        Assertions.assertTrue(this.taskRepository.replace(task, version).isEmpty());
+        Assertions.assertEquals(completed, this.taskRepository.findById(task.id()).orElseThrow());
+
+        // Удаление по устаревшей и по актуальной версии
+        Assertions.assertFalse(this.taskRepository.delete(task.id(), version));
+        Assertions.assertTrue(this.taskRepository.delete(task.id(), replaced.version()));
+
+        // Проверки результата
+        Assertions.assertTrue(this.taskRepository.findById(task.id()).isEmpty());
+        Assertions.assertEquals(List.of(), this.taskRepository.findAll());
+        Assertions.assertEquals(List.of(), this.taskRepository.search("milk", 10));
+        Assertions.assertEquals(0, this.taskRepository.size());
+        Assertions.assertTrue(this.taskRepository.replace(completed, replaced.version()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("concurrent compare-and-swap toggles of one task are never lost")
+    void replace_ConcurrentTogglesAreNotLost() throws Exception {
+        // Заданные данные
+        int threads = 8;
+        int togglesPerThread = 1_000;
+        Task task = new Task(UUID.randomUUID(), "0", false);
+        this.taskRepository.save(task);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            // Каждый поток увеличивает счётчик в описании через чтение и условную замену с повтором
+            for (int t = 0; t < threads; t++) {
+                results.add(executorService.submit(() -> {
+                    for (int i = 0; i < togglesPerThread; i++) {
+                        while (true) {
+                            VersionedTask current = this.taskRepository.findVersionedById(task.id()).orElseThrow();
+                            Task next = new Task(task.id(),
+                                    String.valueOf(Integer.parseInt(current.task().description()) + 1),
+                                    !current.task().completed());
+                            if (this.taskRepository.replace(next, current.version()).isPresent()) {
+                                break;
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Проверка, что ни одно изменение не потеряно
+        Task actual = this.taskRepository.findById(task.id()).orElseThrow();
+        Assertions.assertEquals(String.valueOf(threads * togglesPerThread), actual.description());
+        Assertions.assertFalse(actual.completed());
+    }
+
+    @Test
+    @DisplayName("filtered pages and counts follow saves, replaces and deletes")
+    void findPage_FiltersByCompletionAndCountsFollowChanges() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            saved.add(new Task(UUID.randomUUID(), "Task " + i, i % 3 == 0));
+        }
+        this.taskRepository.saveAll(saved);
+
+        // Завершение открытой задачи и удаление выполненной
+        Task opened = saved.get(1);
+        Task completed = new Task(opened.id(), opened.description(), true);
+        this.taskRepository.replace(completed,
+                this.taskRepository.findVersionedById(opened.id()).orElseThrow().version());
+        Task deleted = saved.get(3);
+        this.taskRepository.delete(deleted.id(),
+                this.taskRepository.findVersionedById(deleted.id()).orElseThrow().version());
+        saved.set(1, completed);
+        saved.remove(3);
+
+        // Проверки результата
+        for (boolean status : new boolean[]{false, true}) {
+            List<Task> expected = saved.stream().filter(task -> task.completed() == status).toList();
+            List<Task> visited = new ArrayList<>();
+            TaskPage page = this.taskRepository.findPage(0, 7, status);
+            visited.addAll(page.tasks());
+            while (page.nextPosition().isPresent()) {
+                page = this.taskRepository.findPage(page.nextPosition().getAsLong(), 7, status);
+                Assertions.assertFalse(page.tasks().isEmpty());
+                visited.addAll(page.tasks());
+            }
+            Assertions.assertEquals(expected, visited);
+            Assertions.assertEquals(expected.size(), this.taskRepository.count(status));
+        }
+    }
+
+    @Test
+    @DisplayName("create and delete churn keeps no tombstones and a deleted task saved again is appended")
+    void delete_LeavesNoTombstones() {
+        // Заданные данные
+        Task kept = new Task(UUID.randomUUID(), "Kept task", false);
+        this.taskRepository.save(kept);
+
+        // Создание и удаление задач в цикле
+        for (int i = 0; i < 10_000; i++) {
+            Task task = new Task(UUID.randomUUID(), "Task " + i, i % 2 == 0);
+            this.taskRepository.save(task);
+            Assertions.assertTrue(this.taskRepository.delete(task.id(),
+                    this.taskRepository.findVersionedById(task.id()).orElseThrow().version()));
+        }
+        Task deleted = new Task(UUID.randomUUID(), "Deleted task", false);
+        this.taskRepository.save(deleted);
+        this.taskRepository.delete(deleted.id(), this.taskRepository.findVersionedById(deleted.id()).orElseThrow().version());
+        Task second = new Task(UUID.randomUUID(), "Second task", false);
+        this.taskRepository.save(second);
+        this.taskRepository.save(deleted);
+
+        // Проверки результата
+        Assertions.assertEquals(3, this.taskRepository.size());
+        Assertions.assertEquals(3, this.taskRepository.trackedIds());
+        Assertions.assertEquals(3, this.taskRepository.count(false));
+        Assertions.assertEquals(List.of(kept, second, deleted), this.taskRepository.findAll());
+        Assertions.assertEquals(List.of(), this.taskRepository.findPage(0, 10, true).tasks());
+    }
+}
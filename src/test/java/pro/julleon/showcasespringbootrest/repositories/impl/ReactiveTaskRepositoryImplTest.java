@@ -0,0 +1,53 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.julleon.showcasespringbootrest.models.Task;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.UUID;
+
+class ReactiveTaskRepositoryImplTest {
+
+    InMemoryTaskRepositoryImpl taskRepository = new InMemoryTaskRepositoryImpl(false);
+
+    ReactiveTaskRepositoryImpl reactiveTaskRepository = new ReactiveTaskRepositoryImpl(this.taskRepository);
+
+    @Test
+    @DisplayName("save stores the task and emits it, findById emits the stored task or completes empty")
+    void saveAndFindById_EmitStoredTask() {
+        // Заданные данные
+        Task task = new Task(UUID.randomUUID(), "First task", false);
+
+        // Проверки результата
+        StepVerifier.create(this.reactiveTaskRepository.save(task))
+                .expectNext(task)
+                .verifyComplete();
+        StepVerifier.create(this.reactiveTaskRepository.findById(task.id()))
+                .expectNext(task)
+                .verifyComplete();
+        StepVerifier.create(this.reactiveTaskRepository.findById(UUID.randomUUID()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("findAll emits tasks in insertion order honouring subscriber demand")
+    void findAll_EmitsTasksOnDemand() {
+        // Заданные данные
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        Task second = new Task(UUID.randomUUID(), "Second task", true);
+        Task third = new Task(UUID.randomUUID(), "Third task", false);
+        this.taskRepository.save(first);
+        this.taskRepository.save(second);
+        this.taskRepository.save(third);
+
+        // Проверка, что задачи выдаются только по запросу подписчика
+        StepVerifier.create(this.reactiveTaskRepository.findAll(), 1)
+                .expectNext(first)
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(2)
+                .expectNext(second, third)
+                .verifyComplete();
+    }
+}
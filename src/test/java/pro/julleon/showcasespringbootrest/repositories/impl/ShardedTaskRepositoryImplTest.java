@@ -0,0 +1,221 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.julleon.showcasespringbootrest.models.Task;
+import pro.julleon.showcasespringbootrest.models.TaskPage;
+import pro.julleon.showcasespringbootrest.models.VersionedTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class ShardedTaskRepositoryImplTest {
+
+    ShardedTaskRepositoryImpl taskRepository = new ShardedTaskRepositoryImpl(4, true);
+
+    @Test
+    @DisplayName("tasks spread over shards are found by id and listed in global insertion order")
+    void findAll_ReturnsTasksInInsertionOrderAcrossShards() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Task task = new Task(UUID.randomUUID(), "Task " + i, false);
+            this.taskRepository.save(task);
+            saved.add(task);
+        }
+        Task firstCompleted = new Task(saved.get(0).id(), "Task 0", true);
+
+        // Повторное сохранение первой задачи
+        this.taskRepository.save(firstCompleted);
+        saved.set(0, firstCompleted);
+
+        // Проверки результата
+        Assertions.assertEquals(saved, this.taskRepository.findAll());
+        try (Stream<Task> tasks = this.taskRepository.streamAll()) {
+            Assertions.assertEquals(saved, tasks.toList());
+        }
+        Assertions.assertEquals(firstCompleted, this.taskRepository.findById(firstCompleted.id()).orElseThrow());
+        Assertions.assertTrue(this.taskRepository.findById(UUID.randomUUID()).isEmpty());
+        Assertions.assertEquals(100, this.taskRepository.size());
+    }
+
+    @Test
+    @DisplayName("saveAll keeps batch order across shards and replaces already stored tasks in place")
+    void saveAll_KeepsBatchOrderAcrossShards() {
+        // Заданные данные: пакет больше порога параллельной записи по шардам
+        Task first = new Task(UUID.randomUUID(), "First task", false);
+        this.taskRepository.save(first);
+        Task firstCompleted = new Task(first.id(), "First task", true);
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            batch.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+        batch.add(5_000, firstCompleted);
+
+        // Пакетное сохранение
+        this.taskRepository.saveAll(batch);
+
+        // Проверки результата
+        List<Task> expected = new ArrayList<>(batch);
+        expected.remove(firstCompleted);
+        expected.add(0, firstCompleted);
+        Assertions.assertEquals(expected, this.taskRepository.findAll());
+        Assertions.assertEquals(10_001, this.taskRepository.size());
+        Assertions.assertEquals(1, this.taskRepository.count(true));
+    }
+
+    @Test
+    @DisplayName("findPage merges shard pages into bounded pages in insertion order")
+    void findPage_MergesShardPages() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            saved.add(new Task(UUID.randomUUID(), "Task " + i, i % 3 == 0));
+        }
+        this.taskRepository.saveAll(saved);
+
+        // Обход всех и только выполненных задач страницами по курсору
+        List<Task> visited = new ArrayList<>();
+        List<Task> completed = new ArrayList<>();
+        long afterPosition = 0;
+        int pages = 0;
+        while (true) {
+            TaskPage page = this.taskRepository.findPage(afterPosition, 10);
+            Assertions.assertTrue(page.tasks().size() <= 10);
+            visited.addAll(page.tasks());
+            pages++;
+            if (page.nextPosition().isEmpty()) {
+                break;
+            }
+            afterPosition = page.nextPosition().getAsLong();
+        }
+        afterPosition = 0;
+        while (true) {
+            TaskPage page = this.taskRepository.findPage(afterPosition, 2, true);
+            completed.addAll(page.tasks());
+            if (page.nextPosition().isEmpty()) {
+                break;
+            }
+            afterPosition = page.nextPosition().getAsLong();
+        }
+
+        // Проверки результата
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(saved, visited);
+        Assertions.assertEquals(saved.stream().filter(Task::completed).toList(), completed);
+        Assertions.assertEquals(completed.size(), this.taskRepository.count(true));
+        Assertions.assertEquals(saved.size() - completed.size(), this.taskRepository.count(false));
+    }
+
+    @Test
+    @DisplayName("task versions are unique across shards and replace and delete succeed only for the current one")
+    void versions_AreUniqueAcrossShards() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            saved.add(new Task(UUID.randomUUID(), "Task " + i, false));
+        }
+        this.taskRepository.saveAll(saved);
+        long storeVersion = this.taskRepository.version();
+        Set<Long> versions = saved.stream()
+                .map(task -> this.taskRepository.findVersionedById(task.id()).orElseThrow().version())
+                .collect(Collectors.toSet());
+        Task task = saved.get(0);
+        long version = this.taskRepository.findVersionedById(task.id()).orElseThrow().version();
+
+        // Замена по устаревшей и текущей версии, удаление по устаревшей и текущей версии
+        Task completed = new Task(task.id(), task.description(), true);
+        Assertions.assertTrue(this.taskRepository.replace(completed, version - 1).isEmpty());
+        VersionedTask replaced = this.taskRepository.replace(completed, version).orElseThrow();
+        Assertions.assertFalse(this.taskRepository.delete(task.id(), version));
+        Assertions.assertTrue(this.taskRepository.delete(task.id(), replaced.version()));
+
+        // Проверки результата
+        Assertions.assertEquals(100, versions.size());
+        Assertions.assertFalse(versions.contains(replaced.version()));
+        Assertions.assertTrue(this.taskRepository.version() > storeVersion);
+        Assertions.assertTrue(this.taskRepository.findById(task.id()).isEmpty());
+        Assertions.assertEquals(saved.subList(1, 100), this.taskRepository.findAll());
+    }
+
+    @Test
+    @DisplayName("search ranks tasks from all shards by one shared index")
+    void search_FindsTasksFromAllShards() {
+        // Заданные данные
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            saved.add(new Task(UUID.randomUUID(), "Buy milk number " + i, false));
+        }
+        Task exact = new Task(UUID.randomUUID(), "Milk", false);
+        saved.add(exact);
+        this.taskRepository.saveAll(saved);
+
+        // Вызов поиска
+        List<Task> found = this.taskRepository.search("milk", 100);
+
+        // Проверки результата
+        Assertions.assertEquals(21, found.size());
+        Assertions.assertEquals(exact, found.get(0));
+        Assertions.assertEquals(Set.copyOf(saved), Set.copyOf(found));
+    }
+
+    @Test
+    @DisplayName("concurrent save and findAll neither lose nor duplicate tasks")
+    void concurrentAccess_NeitherLosesNorDuplicatesTasks() throws Exception {
+        // Заданные данные
+        int writers = 4;
+        int tasksPerWriter = 5_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Task>>> writerResults = new ArrayList<>();
+
+        try {
+            // Писатели сохраняют задачи, читатель параллельно обходит хранилище и не видит повторов
+            for (int w = 0; w < writers; w++) {
+                writerResults.add(executorService.submit(() -> {
+                    start.await();
+                    List<Task> written = new ArrayList<>(tasksPerWriter);
+                    for (int i = 0; i < tasksPerWriter; i++) {
+                        Task task = new Task(UUID.randomUUID(), "Task " + i, false);
+                        this.taskRepository.save(task);
+                        Assertions.assertEquals(task, this.taskRepository.findById(task.id()).orElseThrow());
+                        written.add(task);
+                    }
+                    return written;
+                }));
+            }
+            Future<?> reader = executorService.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    List<Task> all = this.taskRepository.findAll();
+                    Assertions.assertEquals(all.size(), new HashSet<>(all).size());
+                }
+                return null;
+            });
+            start.countDown();
+
+            // Проверки результата
+            Set<Task> expected = new HashSet<>();
+            for (Future<List<Task>> result : writerResults) {
+                expected.addAll(result.get(1, TimeUnit.MINUTES));
+            }
+            reader.get(1, TimeUnit.MINUTES);
+            List<Task> all = this.taskRepository.findAll();
+            Assertions.assertEquals(writers * tasksPerWriter, all.size());
+            Assertions.assertEquals(expected, new HashSet<>(all));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class SlotSearchIndexTest {
+
+    SlotSearchIndex searchIndex = new SlotSearchIndex();
+
+    // Описания и версии слотов, как их хранит компактное хранилище
+    List<String> descriptions = new ArrayList<>();
+
+    List<Long> versions = new ArrayList<>();
+
+    long version;
+
+    @Test
+    @DisplayName("search requires every query term, matches prefixes and ranks exact matches first")
+    void search_MatchesAllTermsByPrefixInRelevanceOrder() {
+        // Заданные данные
+        int report = save(-1, "Send report");
+        int reporting = save(-1, "Send reporting dashboard");
+        int weeklyReport = save(-1, "Write weekly report");
+
+        // Проверки результата
+        Assertions.assertArrayEquals(new int[]{report, reporting}, search("send REP", 10));
+        Assertions.assertArrayEquals(new int[]{weeklyReport, report, reporting}, search("report", 10));
+        Assertions.assertArrayEquals(new int[]{weeklyReport}, search("report", 1));
+        Assertions.assertArrayEquals(new int[0], search("send weekly", 10));
+        Assertions.assertArrayEquals(new int[0], search("?!", 10));
+    }
+
+    @Test
+    @DisplayName("replacing and removing a slot drops its old terms and a removed slot can be indexed again")
+    void index_ReplacesAndRemovesSlotTerms() {
+        // Заданные данные
+        int first = save(-1, "Buy milk");
+        int second = save(-1, "Buy bread");
+
+        // Замена описания первого слота, удаление и повторное сохранение второго
+        save(first, "Buy cheese");
+        this.searchIndex.remove(second, this.descriptions.get(second));
+        Assertions.assertArrayEquals(new int[0], search("bread", 10));
+        this.descriptions.set(second, null);
+        save(second, "Buy bread again");
+
+        // Проверки результата
+        Assertions.assertArrayEquals(new int[0], search("milk", 10));
+        Assertions.assertArrayEquals(new int[]{first}, search("cheese", 10));
+        Assertions.assertArrayEquals(new int[]{second, first}, search("buy", 10));
+    }
+
+    @Test
+    @DisplayName("postings stay sorted and searchable after many removals compact them")
+    void remove_CompactsPostings() {
+        // Заданные данные
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            slots.add(save(-1, "Task " + i));
+        }
+
+        // Удаление всех слотов, кроме каждого десятого
+        for (int slot : slots) {
+            if (slot % 10 != 0) {
+                this.searchIndex.remove(slot, this.descriptions.get(slot));
+            }
+        }
+
+        // Проверки результата
+        int[] found = search("task", 1_000);
+        Assertions.assertEquals(100, found.length);
+        for (int slot : found) {
+            Assertions.assertEquals(0, slot % 10);
+        }
+        Assertions.assertArrayEquals(new int[]{990}, search("task 990", 10));
+    }
+
+    // Сохранение в новый (slot < 0) или существующий слот с новой версией
+    private int save(int slot, String description) {
+        if (slot < 0) {
+            slot = this.descriptions.size();
+            this.descriptions.add(null);
+            this.versions.add(0L);
+        }
+        this.searchIndex.index(slot, this.descriptions.get(slot), description);
+        this.descriptions.set(slot, description);
+        this.versions.set(slot, ++this.version);
+        return slot;
+    }
+
+    private int[] search(String query, int limit) {
+        return this.searchIndex.search(query, limit, this.descriptions.size(),
+                slot -> this.versions.get(slot), this.descriptions::get);
+    }
+}
@@ -0,0 +1,78 @@
+package pro.julleon.showcasespringbootrest.repositories.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import pro.julleon.showcasespringbootrest.models.Task;
+
+import java.util.List;
+import java.util.UUID;
+
+class TaskSearchIndexTest {
+
+    TaskSearchIndex searchIndex = new TaskSearchIndex();
+
+    @Test
+    @DisplayName("descriptions are tokenized on non-alphanumeric characters and case-folded")
+    void tokenize_SplitsAndCaseFolds() {
+        // Проверки результата
+        Assertions.assertArrayEquals(new String[]{"buy", "milk", "купить", "молоко"},
+                TaskSearchIndex.tokenize("Buy MILK, купить молоко! Buy"));
+        Assertions.assertArrayEquals(new String[0], TaskSearchIndex.tokenize(null));
+        Assertions.assertArrayEquals(new String[0], TaskSearchIndex.tokenize(" -- "));
+    }
+
+    @Test
+    @DisplayName("search requires every query term, matches prefixes and ranks exact matches first")
+    void search_MatchesAllTermsByPrefixInRelevanceOrder() {
+        // Заданные данные
+        UUID report = UUID.randomUUID();
+        UUID reporting = UUID.randomUUID();
+        UUID weeklyReport = UUID.randomUUID();
+        this.searchIndex.index(report, 1, "Send report");
+        this.searchIndex.index(reporting, 2, "Send reporting dashboard");
+        this.searchIndex.index(weeklyReport, 3, "Write weekly report");
+
+        // Проверки результата
+        Assertions.assertEquals(List.of(report, reporting), this.searchIndex.search("send REP", 10));
+        Assertions.assertEquals(List.of(weeklyReport, report, reporting), this.searchIndex.search("report", 10));
+        Assertions.assertEquals(List.of(weeklyReport), this.searchIndex.search("report", 1));
+        Assertions.assertEquals(List.of(), this.searchIndex.search("send weekly", 10));
+        Assertions.assertEquals(List.of(), this.searchIndex.search("?!", 10));
+    }
+
+    @Test
+    @DisplayName("reindexing a task replaces its terms and an older version never overwrites a newer one")
+    void index_ReplacesTermsOfNewerVersionOnly() {
+        // Заданные данные
+        UUID taskId = UUID.randomUUID();
+        this.searchIndex.index(taskId, 1, "Buy milk");
+
+        // Переиндексация новой версией и запоздавшая старая версия
+        this.searchIndex.index(taskId, 3, "Buy bread");
+        this.searchIndex.index(taskId, 2, "Buy cheese");
+
+        // Проверки результата
+        Assertions.assertEquals(List.of(), this.searchIndex.search("milk", 10));
+        Assertions.assertEquals(List.of(), this.searchIndex.search("cheese", 10));
+        Assertions.assertEquals(List.of(taskId), this.searchIndex.search("bread", 10));
+    }
+
+    @Test
+    @DisplayName("scan without an index finds and ranks tasks the same way as the index")
+    void scan_RanksLikeIndex() {
+        // Заданные данные
+        Task report = new Task(UUID.randomUUID(), "Send report", false);
+        Task reporting = new Task(UUID.randomUUID(), "Send reporting dashboard", false);
+        Task weeklyReport = new Task(UUID.randomUUID(), "Write weekly report", false);
+        Task withoutDescription = new Task(UUID.randomUUID(), null, false);
+        List<Task> tasks = List.of(report, reporting, weeklyReport, withoutDescription);
+
+        // Проверки результата
+        Assertions.assertEquals(List.of(report, reporting), TaskSearchIndex.scan(tasks, "send REP", 10));
+        Assertions.assertEquals(List.of(weeklyReport, report, reporting), TaskSearchIndex.scan(tasks, "report", 10));
+        Assertions.assertEquals(List.of(weeklyReport), TaskSearchIndex.scan(tasks, "report", 1));
+        Assertions.assertEquals(List.of(), TaskSearchIndex.scan(tasks, "send weekly", 10));
+        Assertions.assertEquals(List.of(), TaskSearchIndex.scan(tasks, "?!", 10));
+    }
+}
@@ -0,0 +1,67 @@
+package pro.julleon.showcasespringbootrest.validation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import pro.julleon.showcasespringbootrest.http.error.ErrorsPresentation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+class TaskErrorMessagesTest {
+
+    ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+
+    {
+        this.messageSource.setBasename("messages");
+        this.messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+    }
+
+    @Test
+    @DisplayName("error bodies are resolved per locale from the message bundles and reused")
+    void errors_ResolvesPerLocaleAndReusesBodies() {
+        // Заданные данные
+        TaskErrorMessages taskErrorMessages = new TaskErrorMessages(this.messageSource);
+
+        // Вызов метода
+        ErrorsPresentation english = taskErrorMessages.errors(TaskErrorCode.DESCRIPTION_NOT_SET, Locale.ENGLISH);
+        ErrorsPresentation russian = taskErrorMessages.errors(TaskErrorCode.DESCRIPTION_TOO_LONG,
+                Locale.forLanguageTag("ru-RU"));
+
+        // Проверки результата
+        Assertions.assertEquals(new ErrorsPresentation(List.of("Task description must be set")), english);
+        Assertions.assertEquals(new ErrorsPresentation(List.of("Описание задачи должно содержать не более 1000 символов")),
+                russian);
+        Assertions.assertSame(english, taskErrorMessages.errors(TaskErrorCode.DESCRIPTION_NOT_SET, Locale.ENGLISH));
+    }
+
+    @Test
+    @DisplayName("every error code has a message in every bundle")
+    void errors_AllCodesHaveMessages() {
+        // Заданные данные
+        TaskErrorMessages taskErrorMessages = new TaskErrorMessages(this.messageSource);
+
+        // Проверки результата: отсутствующее сообщение привело бы к NoSuchMessageException
+        for (Locale locale : List.of(Locale.ROOT, Locale.ENGLISH, Locale.forLanguageTag("ru-RU"))) {
+            for (TaskErrorCode errorCode : TaskErrorCode.values()) {
+                Assertions.assertFalse(taskErrorMessages.errors(errorCode, locale).errors().get(0).isBlank());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("description checks report blank, missing and too long descriptions")
+    void validateDescription_ReportsErrorCodes() {
+        // Проверки результата
+        Assertions.assertNull(TaskValidation.validateNewDescription("Task"));
+        Assertions.assertEquals(TaskErrorCode.DESCRIPTION_NOT_SET, TaskValidation.validateNewDescription(null));
+        Assertions.assertEquals(TaskErrorCode.DESCRIPTION_NOT_SET, TaskValidation.validateNewDescription(" \t"));
+        Assertions.assertNull(TaskValidation.validateNewDescription("x".repeat(TaskValidation.MAX_DESCRIPTION_LENGTH)));
+        Assertions.assertEquals(TaskErrorCode.DESCRIPTION_TOO_LONG,
+                TaskValidation.validateNewDescription("x".repeat(TaskValidation.MAX_DESCRIPTION_LENGTH + 1)));
+        Assertions.assertNull(TaskValidation.validateUpdatedDescription(null));
+        Assertions.assertEquals(TaskErrorCode.DESCRIPTION_NOT_SET, TaskValidation.validateUpdatedDescription(""));
+    }
+}